@@ -3,12 +3,20 @@ package data.models;
 /**
  * Reprezintă un cont bancar asociat unui utilizator.
  * Conține informații despre IBAN, tipul contului și soldul curent.
+ * Pe lângă sold, contul reține totalul tranzacțiilor din registru deja incluse în sold; la pornire,
+ * diferența dintre totalul din registru și această valoare este aplicată soldului.
  */
 public class Account {
+    /**
+     * Valoarea folosită când nu se știe ce parte din registru este inclusă în sold.
+     */
+    public static final long UNKNOWN_POSTED = Long.MIN_VALUE;
+
     private String userId;
-    private String iban;
+    private int ibanId;
     private String type;
-    private double balance;
+    private long balanceMinor;
+    private long postedMinor = UNKNOWN_POSTED;
 
     /**
      * Creează un nou cont bancar.
@@ -18,11 +26,40 @@ public class Account {
      * @param type Tipul contului (ex: curent, economii)
      * @param balance Soldul inițial al contului
      */
-    public Account(String userId, String iban, String type, double balance) {
+    public Account(String userId, String iban, String type, Money balance) {
+        this.userId = userId;
+        this.ibanId = IbanDictionary.idOf(iban);
+        this.type = type;
+        this.balanceMinor = balance.getMinor();
+    }
+
+    /**
+     * Creează un nou cont bancar pentru un IBAN deja înregistrat în {@link IbanDictionary}.
+     *
+     * @param userId ID-ul utilizatorului deținător al contului
+     * @param ibanId ID-ul IBAN-ului contului
+     * @param type Tipul contului (ex: curent, economii)
+     * @param balance Soldul inițial al contului
+     */
+    public Account(String userId, int ibanId, String type, Money balance) {
         this.userId = userId;
-        this.iban = iban;
+        this.ibanId = ibanId;
         this.type = type;
-        this.balance = balance;
+        this.balanceMinor = balance.getMinor();
+    }
+
+    /**
+     * Creează un nou cont bancar care știe ce parte din registru este inclusă în sold.
+     *
+     * @param userId ID-ul utilizatorului deținător al contului
+     * @param ibanId ID-ul IBAN-ului contului
+     * @param type Tipul contului (ex: curent, economii)
+     * @param balance Soldul contului
+     * @param postedMinor totalul tranzacțiilor din registru incluse în sold sau {@link #UNKNOWN_POSTED}
+     */
+    public Account(String userId, int ibanId, String type, Money balance, long postedMinor) {
+        this(userId, ibanId, type, balance);
+        this.postedMinor = postedMinor;
     }
 
     /**
@@ -36,7 +73,14 @@ public class Account {
      * @return IBAN-ul contului
      */
     public String getIban() {
-        return iban;
+        return IbanDictionary.ibanOf(ibanId);
+    }
+
+    /**
+     * @return ID-ul IBAN-ului în {@link IbanDictionary}
+     */
+    public int getIbanId() {
+        return ibanId;
     }
 
     /**
@@ -49,8 +93,22 @@ public class Account {
     /**
      * @return Soldul curent al contului
      */
-    public double getBalance() {
-        return balance;
+    public Money getBalance() {
+        return Money.ofMinor(balanceMinor);
+    }
+
+    /**
+     * @return Soldul contului în subunități
+     */
+    public long getBalanceMinor() {
+        return balanceMinor;
+    }
+
+    /**
+     * @return totalul tranzacțiilor din registru incluse în sold, în subunități, sau {@link #UNKNOWN_POSTED}
+     */
+    public long getPostedMinor() {
+        return postedMinor;
     }
 
     /**
@@ -63,9 +121,9 @@ public class Account {
     public String toString() {
         return "Account{" +
                 "userId='" + userId + '\'' +
-                ", iban='" + iban + '\'' +
+                ", iban='" + getIban() + '\'' +
                 ", type='" + type + '\'' +
-                ", balance=" + balance +
+                ", balance=" + getBalance() +
                 '}';
     }
 }
@@ -0,0 +1,85 @@
+package data.models;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dicționar global de IBAN-uri, partajat de toate modelele.
+ * Fiecare IBAN distinct primește o singură dată un ID întreg compact; tranzacțiile și conturile
+ * păstrează doar ID-ul, iar comparațiile pe IBAN devin comparații de întregi.
+ * ID-urile sunt valabile doar pe durata rulării aplicației și nu se scriu în fișiere.
+ */
+public class IbanDictionary {
+    /**
+     * ID-ul folosit pentru un IBAN null.
+     */
+    public static final int NO_IBAN = -1;
+
+    private static final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private static volatile String[] ibans = new String[64];
+    private static int size;
+
+    private IbanDictionary() {
+    }
+
+    /**
+     * Returnează ID-ul unui IBAN, înregistrându-l dacă nu a mai fost întâlnit.
+     *
+     * @param iban IBAN-ul
+     * @return ID-ul IBAN-ului sau {@link #NO_IBAN} pentru null
+     */
+    public static int idOf(String iban) {
+        if (iban == null) {
+            return NO_IBAN;
+        }
+        Integer id = ids.get(iban);
+        return id != null ? id : register(iban);
+    }
+
+    /**
+     * Returnează ID-ul unui IBAN fără a-l înregistra.
+     *
+     * @param iban IBAN-ul căutat
+     * @return ID-ul IBAN-ului sau {@link #NO_IBAN} dacă nu a fost întâlnit
+     */
+    public static int lookup(String iban) {
+        if (iban == null) {
+            return NO_IBAN;
+        }
+        Integer id = ids.get(iban);
+        return id != null ? id : NO_IBAN;
+    }
+
+    /**
+     * Returnează IBAN-ul asociat unui ID.
+     *
+     * @param id ID-ul din dicționar
+     * @return IBAN-ul sau null pentru {@link #NO_IBAN}
+     */
+    public static String ibanOf(int id) {
+        return id == NO_IBAN ? null : ibans[id];
+    }
+
+    /**
+     * @return numărul de IBAN-uri distincte înregistrate
+     */
+    public static synchronized int size() {
+        return size;
+    }
+
+    private static synchronized int register(String iban) {
+        Integer existing = ids.get(iban);
+        if (existing != null) {
+            return existing;
+        }
+        String[] current = ibans;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, size * 2);
+        }
+        current[size] = iban;
+        // tabloul este publicat înainte de ID, deci orice cititor care vede ID-ul vede și IBAN-ul
+        ibans = current;
+        ids.put(iban, size);
+        return size++;
+    }
+}
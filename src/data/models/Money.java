@@ -0,0 +1,246 @@
+package data.models;
+
+import java.math.BigDecimal;
+
+/**
+ * Sumă de bani cu virgulă fixă, păstrată ca număr întreg de subunități (bani, cenți).
+ * Operațiile pe valori {@code long} ({@link #add(long, long)}, {@link #subtract(long, long)},
+ * {@link #compare(long, long)}) nu creează obiecte și sunt folosite în buclele care adună multe sume;
+ * obiectul {@code Money} este o învelitoare imuabilă pentru API-ul modelelor și pentru interfață.
+ * Sumele sunt exacte la nivel de ban; depășirea domeniului {@code long} aruncă {@link ArithmeticException}.
+ */
+public final class Money implements Comparable<Money> {
+    /**
+     * Suma zero.
+     */
+    public static final Money ZERO = new Money(0);
+
+    private static final int SCALE = 2;
+    private static final long MINOR_PER_UNIT = 100;
+
+    private final long minor;
+
+    private Money(long minor) {
+        this.minor = minor;
+    }
+
+    /**
+     * Creează o sumă din subunități.
+     *
+     * @param minor suma în subunități
+     * @return suma
+     */
+    public static Money ofMinor(long minor) {
+        return new Money(minor);
+    }
+
+    /**
+     * Interpretează o sumă scrisă ca text (de exemplu {@code -123.45}).
+     *
+     * @param text textul sumei
+     * @return suma
+     * @throws NumberFormatException dacă textul nu este o sumă validă cu cel mult două zecimale
+     */
+    public static Money parse(CharSequence text) {
+        char[] chars = text.toString().trim().toCharArray();
+        return new Money(parseMinor(chars, 0, chars.length));
+    }
+
+    /**
+     * Interpretează o sumă direct dintr-un buffer de caractere, fără obiecte intermediare
+     * pentru formele obișnuite ({@code 123}, {@code -123.4}, {@code 123.45}).
+     * Formele rare (de exemplu cu exponent, {@code 1.0E7}) sunt interpretate prin {@link BigDecimal}.
+     * Zecimalele de după a doua sunt acceptate doar dacă sunt zero.
+     *
+     * @param chars buffer-ul de caractere
+     * @param start începutul câmpului (inclusiv)
+     * @param end sfârșitul câmpului (exclusiv)
+     * @return suma în subunități
+     * @throws NumberFormatException dacă textul nu este o sumă validă cu cel mult două zecimale
+     */
+    public static long parseMinor(char[] chars, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+            negative = chars[i] == '-';
+            i++;
+        }
+        long units = 0;
+        long fraction = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; i < end; i++) {
+            char c = chars[i];
+            if (c >= '0' && c <= '9') {
+                digits++;
+                if (scale < 0) {
+                    if (units > (Long.MAX_VALUE / MINOR_PER_UNIT - 10) / 10) {
+                        return parseExact(chars, start, end);
+                    }
+                    units = units * 10 + (c - '0');
+                } else if (scale < SCALE) {
+                    fraction = fraction * 10 + (c - '0');
+                    scale++;
+                } else if (c != '0') {
+                    throw new NumberFormatException("More than two decimals: " + new String(chars, start, end - start));
+                }
+            } else if (c == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                return parseExact(chars, start, end);
+            }
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("Invalid amount: " + new String(chars, start, end - start));
+        }
+        for (int s = Math.max(scale, 0); s < SCALE; s++) {
+            fraction *= 10;
+        }
+        long minor = units * MINOR_PER_UNIT + fraction;
+        return negative ? -minor : minor;
+    }
+
+    private static long parseExact(char[] chars, int start, int end) {
+        String text = new String(chars, start, end - start);
+        try {
+            return new BigDecimal(text).setScale(SCALE).unscaledValue().longValueExact();
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new NumberFormatException("Invalid amount: " + text);
+        }
+    }
+
+    /**
+     * Adaugă suma în buffer, cu exact două zecimale, fără obiecte intermediare.
+     *
+     * @param builder destinația
+     * @param minor suma în subunități
+     */
+    public static void appendTo(StringBuilder builder, long minor) {
+        long units = minor / MINOR_PER_UNIT;
+        int cents = (int) Math.abs(minor % MINOR_PER_UNIT);
+        if (minor < 0 && units == 0) {
+            builder.append('-');
+        }
+        builder.append(units).append('.');
+        if (cents < 10) {
+            builder.append('0');
+        }
+        builder.append(cents);
+    }
+
+    /**
+     * Formatează suma cu exact două zecimale (de exemplu {@code -123.40}).
+     *
+     * @param minor suma în subunități
+     * @return textul sumei
+     */
+    public static String format(long minor) {
+        StringBuilder builder = new StringBuilder(24);
+        appendTo(builder, minor);
+        return builder.toString();
+    }
+
+    /**
+     * Adună două sume în subunități.
+     *
+     * @param a prima sumă
+     * @param b a doua sumă
+     * @return suma lor
+     * @throws ArithmeticException dacă rezultatul depășește domeniul
+     */
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    /**
+     * Scade două sume în subunități.
+     *
+     * @param a descăzutul
+     * @param b scăzătorul
+     * @return diferența
+     * @throws ArithmeticException dacă rezultatul depășește domeniul
+     */
+    public static long subtract(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    /**
+     * Compară două sume în subunități.
+     *
+     * @param a prima sumă
+     * @param b a doua sumă
+     * @return o valoare negativă, zero sau pozitivă, ca {@link Long#compare(long, long)}
+     */
+    public static int compare(long a, long b) {
+        return Long.compare(a, b);
+    }
+
+    /**
+     * @return suma în subunități
+     */
+    public long getMinor() {
+        return minor;
+    }
+
+    /**
+     * @param other suma adunată
+     * @return suma celor două valori
+     */
+    public Money plus(Money other) {
+        return new Money(add(minor, other.minor));
+    }
+
+    /**
+     * @param other suma scăzută
+     * @return diferența celor două valori
+     */
+    public Money minus(Money other) {
+        return new Money(subtract(minor, other.minor));
+    }
+
+    /**
+     * @return suma cu semn schimbat
+     */
+    public Money negate() {
+        return new Money(Math.negateExact(minor));
+    }
+
+    /**
+     * @return true dacă suma este mai mică decât zero
+     */
+    public boolean isNegative() {
+        return minor < 0;
+    }
+
+    /**
+     * @return true dacă suma este zero
+     */
+    public boolean isZero() {
+        return minor == 0;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return compare(minor, other.minor);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return minor == ((Money) o).minor;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minor);
+    }
+
+    /**
+     * @return suma cu exact două zecimale (de exemplu {@code 123.45})
+     */
+    @Override
+    public String toString() {
+        return format(minor);
+    }
+}
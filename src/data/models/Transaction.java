@@ -7,8 +7,8 @@ import java.util.Date;
  * Conține informații despre suma tranzacționată și data tranzacției.
  */
 public class Transaction {
-    private String iban;
-    private double amount;
+    private int ibanId;
+    private long amountMinor;
     private Date date;
 
     /**
@@ -18,9 +18,22 @@ public class Transaction {
      * @param amount Suma tranzacționată
      * @param date Data tranzacției
      */
-    public Transaction(String iban, double amount, Date date) {
-        this.iban = iban;
-        this.amount = amount;
+    public Transaction(String iban, Money amount, Date date) {
+        this.ibanId = IbanDictionary.idOf(iban);
+        this.amountMinor = amount.getMinor();
+        this.date = date;
+    }
+
+    /**
+     * Creează o nouă tranzacție pentru un IBAN deja înregistrat în {@link IbanDictionary}.
+     *
+     * @param ibanId ID-ul IBAN-ului contului asociat tranzacției
+     * @param amount Suma tranzacționată
+     * @param date Data tranzacției
+     */
+    public Transaction(int ibanId, Money amount, Date date) {
+        this.ibanId = ibanId;
+        this.amountMinor = amount.getMinor();
         this.date = date;
     }
 
@@ -28,14 +41,28 @@ public class Transaction {
      * @return IBAN-ul contului asociat tranzacției
      */
     public String getIban() {
-        return iban;
+        return IbanDictionary.ibanOf(ibanId);
+    }
+
+    /**
+     * @return ID-ul IBAN-ului în {@link IbanDictionary}
+     */
+    public int getIbanId() {
+        return ibanId;
     }
 
     /**
      * @return Suma tranzacționată
      */
-    public double getAmount() {
-        return amount;
+    public Money getAmount() {
+        return Money.ofMinor(amountMinor);
+    }
+
+    /**
+     * @return Suma tranzacționată în subunități
+     */
+    public long getAmountMinor() {
+        return amountMinor;
     }
 
     /**
@@ -51,7 +78,7 @@ public class Transaction {
      * @param iban IBAN-ul contului
      */
     public void setIban(String iban) {
-        this.iban = iban;
+        this.ibanId = IbanDictionary.idOf(iban);
     }
 
     /**
@@ -59,8 +86,8 @@ public class Transaction {
      *
      * @param amount Suma tranzacționată
      */
-    public void setAmount(double amount) {
-        this.amount = amount;
+    public void setAmount(Money amount) {
+        this.amountMinor = amount.getMinor();
     }
 
     /**
@@ -1,16 +1,37 @@
 package data.repository;
 
 import data.models.Account;
+import data.models.IbanDictionary;
+import data.models.Money;
 
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Repository pentru operațiuni de încărcare și salvare a conturilor dintr-un fișier.
+ * Pe lângă fișierul de bază, modificările individuale pot fi adăugate într-un jurnal de modificări
+ * ({@code +,userId,iban,tip,sold} pentru inserare sau actualizare, {@code -,iban} pentru ștergere),
+ * aplicat peste fișierul de bază la încărcare și compactat periodic în acesta.
+ * Atât în fișierul de bază, cât și în jurnal, un cont poate avea un câmp final suplimentar cu totalul
+ * tranzacțiilor din registru incluse în sold; rândurile fără el sunt citite cu {@link Account#UNKNOWN_POSTED}.
  */
 public class AccountRepository {
-    private static final String FILE_PATH = "src/resources/accounts_file.txt";
+    static final String FILE_PATH = "src/resources/accounts_file.txt";
+    private static final String UPSERT = "+";
+    private static final String DELETE = "-";
 
     /**
      * Încarcă toate conturile din fișierul specificat.
@@ -19,13 +40,24 @@ public class AccountRepository {
      * @throws IOException dacă apare o eroare de citire a fișierului
      */
     public static List<Account> loadAccounts() throws IOException {
+        return loadAccounts(FILE_PATH);
+    }
+
+    /**
+     * Încarcă toate conturile dintr-un fișier CSV dat.
+     *
+     * @param filePath calea fișierului CSV
+     * @return Lista de conturi încărcate
+     * @throws IOException dacă apare o eroare de citire a fișierului
+     */
+    public static List<Account> loadAccounts(String filePath) throws IOException {
         List<Account> accounts = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(FILE_PATH))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(",");
-                Account account = new Account(parts[0], parts[1], parts[2], Double.parseDouble(parts[3]));
-                accounts.add(account);
+        try (Reader reader = new FileReader(filePath)) {
+            CsvCodec.RecordReader records = new CsvCodec.RecordReader(reader);
+            while (records.next()) {
+                if (records.fieldCount() == 4 || records.fieldCount() == 5) {
+                    accounts.add(toAccount(records, 0));
+                }
             }
         }
         return accounts;
@@ -38,13 +70,178 @@ public class AccountRepository {
      * @throws IOException dacă apare o eroare de scriere în fișier
      */
     public static void saveAccounts(List<Account> accounts) throws IOException {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(FILE_PATH))) {
+        saveAccounts(FILE_PATH, accounts);
+    }
+
+    /**
+     * Salvează lista de conturi într-un fișier CSV dat și o sincronizează pe disc.
+     *
+     * @param filePath calea fișierului CSV
+     * @param accounts Lista de conturi de salvat
+     * @throws IOException dacă apare o eroare de scriere în fișier
+     */
+    public static void saveAccounts(String filePath, List<Account> accounts) throws IOException {
+        try (FileOutputStream file = new FileOutputStream(filePath)) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(file, StandardCharsets.UTF_8));
+            CsvCodec.RecordWriter records = new CsvCodec.RecordWriter(writer);
             for (Account account : accounts) {
-                String line = account.getUserId() + "," + account.getIban() + "," +
-                        account.getType() + "," + account.getBalance();
-                writer.write(line);
-                writer.newLine();
+                writeAccount(records, account);
+            }
+            writer.flush();
+            file.getFD().sync();
+        }
+    }
+
+    /**
+     * Returnează calea jurnalului de modificări asociat unui fișier de conturi.
+     *
+     * @param filePath calea fișierului de conturi
+     * @return calea jurnalului de modificări ({@code .log} în locul extensiei fișierului)
+     */
+    public static String changeLogPath(String filePath) {
+        int extension = filePath.lastIndexOf('.');
+        int separator = Math.max(filePath.lastIndexOf('/'), filePath.lastIndexOf(File.separatorChar));
+        return (extension > separator ? filePath.substring(0, extension) : filePath) + ".log";
+    }
+
+    /**
+     * Încarcă conturile din fișierul de bază și aplică peste ele jurnalul de modificări, dacă există.
+     * Un cont actualizat înlocuiește toate rândurile cu același IBAN; un cont nou este adăugat la final.
+     *
+     * @param filePath calea fișierului de bază
+     * @param logPath calea jurnalului de modificări
+     * @return Lista de conturi curente
+     * @throws IOException dacă apare o eroare de citire
+     */
+    public static List<Account> loadAccounts(String filePath, String logPath) throws IOException {
+        List<Account> base = loadAccounts(filePath);
+        if (!Files.exists(Paths.get(logPath))) {
+            return base;
+        }
+        // ultima modificare a fiecărui IBAN; valoarea null înseamnă cont șters
+        Map<String, Account> changes = new LinkedHashMap<>();
+        try (Reader reader = new FileReader(logPath)) {
+            CsvCodec.RecordReader records = new CsvCodec.RecordReader(reader);
+            while (records.next()) {
+                if ((records.fieldCount() == 5 || records.fieldCount() == 6) && records.textEquals(0, UPSERT)) {
+                    Account account = toAccount(records, 1);
+                    changes.remove(account.getIban());
+                    changes.put(account.getIban(), account);
+                } else if (records.fieldCount() == 2 && records.textEquals(0, DELETE)) {
+                    changes.remove(records.text(1));
+                    changes.put(records.text(1), null);
+                }
+            }
+        }
+        List<Account> accounts = new ArrayList<>(base.size() + changes.size());
+        Set<String> applied = new HashSet<>();
+        for (Account account : base) {
+            if (!changes.containsKey(account.getIban())) {
+                accounts.add(account);
+                continue;
+            }
+            Account changed = changes.get(account.getIban());
+            if (changed != null) {
+                accounts.add(changed);
+            }
+            applied.add(account.getIban());
+        }
+        for (Map.Entry<String, Account> change : changes.entrySet()) {
+            if (change.getValue() != null && !applied.contains(change.getKey())) {
+                accounts.add(change.getValue());
+            }
+        }
+        return accounts;
+    }
+
+    /**
+     * Adaugă modificările date la finalul jurnalului de modificări și le sincronizează pe disc.
+     *
+     * @param logPath calea jurnalului de modificări
+     * @param upserted conturile inserate sau actualizate
+     * @param deletedIbans IBAN-urile conturilor șterse
+     * @throws IOException dacă apare o eroare de scriere
+     */
+    public static void appendChanges(String logPath, List<Account> upserted, List<String> deletedIbans)
+            throws IOException {
+        try (FileOutputStream file = new FileOutputStream(logPath, true)) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(file, StandardCharsets.UTF_8));
+            CsvCodec.RecordWriter records = new CsvCodec.RecordWriter(writer);
+            for (String iban : deletedIbans) {
+                records.text(DELETE).text(iban).endRecord();
             }
+            for (Account account : upserted) {
+                writeAccount(records.text(UPSERT), account);
+            }
+            writer.flush();
+            file.getFD().sync();
+        }
+    }
+
+    /**
+     * Compactează jurnalul de modificări în fișierul de bază: fișierul este rescris atomic cu starea curentă,
+     * apoi jurnalul este șters. Fișierul temporar este sincronizat pe disc înainte de redenumire, iar redenumirea
+     * este sincronizată (prin directorul părinte) înainte de ștergerea jurnalului. Reaplicarea jurnalului peste
+     * un fișier deja compactat nu schimbă rezultatul, deci o întrerupere între cei doi pași nu pierde date.
+     *
+     * @param filePath calea fișierului de bază
+     * @param logPath calea jurnalului de modificări
+     * @throws IOException dacă apare o eroare de citire sau scriere
+     */
+    public static void compact(String filePath, String logPath) throws IOException {
+        Path temporary = Paths.get(filePath + ".tmp");
+        saveAccounts(temporary.toString(), loadAccounts(filePath, logPath));
+        Path target = Paths.get(filePath);
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory(target.toAbsolutePath().getParent());
+        Files.deleteIfExists(Paths.get(logPath));
+    }
+
+    /**
+     * Sincronizează pe disc intrările unui director, astfel încât o redenumire făcută în el să fie durabilă.
+     * Pe sistemele care nu permit deschiderea unui director (de exemplu Windows) sincronizarea este omisă.
+     *
+     * @param directory directorul de sincronizat
+     * @throws IOException dacă sincronizarea eșuează
+     */
+    private static void syncDirectory(Path directory) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (AccessDeniedException e) {
+            return;
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Citește un cont din înregistrarea curentă, începând cu câmpul dat.
+     *
+     * @param records cititorul poziționat pe înregistrare
+     * @param first indicele câmpului cu ID-ul utilizatorului
+     * @return contul citit
+     */
+    private static Account toAccount(CsvCodec.RecordReader records, int first) {
+        long postedMinor = records.fieldCount() > first + 4 ? records.money(first + 4) : Account.UNKNOWN_POSTED;
+        return new Account(records.text(first), IbanDictionary.idOf(records.text(first + 1)), records.text(first + 2),
+                Money.ofMinor(records.money(first + 3)), postedMinor);
+    }
+
+    /**
+     * Scrie câmpurile unui cont și încheie înregistrarea; totalul inclus în sold este scris doar dacă este cunoscut.
+     *
+     * @param records scriitorul de înregistrări
+     * @param account contul de scris
+     * @throws IOException dacă apare o eroare de scriere
+     */
+    private static void writeAccount(CsvCodec.RecordWriter records, Account account) throws IOException {
+        records.text(account.getUserId()).text(account.getIban())
+                .text(account.getType()).money(account.getBalanceMinor());
+        if (account.getPostedMinor() != Account.UNKNOWN_POSTED) {
+            records.money(account.getPostedMinor());
         }
+        records.endRecord();
     }
 }
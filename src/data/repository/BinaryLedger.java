@@ -0,0 +1,426 @@
+package data.repository;
+
+import data.models.Money;
+import data.models.Transaction;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Registru binar de tranzacții cu înregistrări de lungime fixă.
+ * Fiecare înregistrare ocupă {@value #RECORD_SIZE} octeți: ID-ul IBAN-ului din dicționar (int),
+ * suma în subunități (long) și ziua epocii (int). Citirea se face printr-un {@link MappedByteBuffer},
+ * fără parsare de text; IBAN-urile sunt păstrate o singură dată într-un fișier dicționar separat.
+ */
+public class BinaryLedger implements Closeable {
+    public static final String LEDGER_PATH = "src/resources/transactions_ledger.bin";
+    public static final String DICTIONARY_PATH = "src/resources/transactions_ledger.ibans";
+
+    private static final int MAGIC = 0x45424C47;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int COUNT_OFFSET = 8;
+    static final int RECORD_SIZE = 16;
+
+    private final FileChannel channel;
+    private final Path dictionaryPath;
+    private final List<String> ibans = new ArrayList<>();
+    private final Map<String, Integer> ibanIds = new HashMap<>();
+    private long recordCount;
+
+    /**
+     * Interfață pentru parcurgerea înregistrărilor fără crearea de obiecte.
+     */
+    public interface RecordVisitor {
+        /**
+         * Primește câmpurile unei înregistrări.
+         *
+         * @param ibanId ID-ul IBAN-ului în dicționar
+         * @param amountMinor suma în subunități (bani, cenți)
+         * @param epochDay data tranzacției ca zi a epocii
+         */
+        void visit(int ibanId, long amountMinor, int epochDay);
+    }
+
+    /**
+     * Deschide (sau creează) registrul binar la căile specificate.
+     *
+     * @param ledgerPath calea fișierului cu înregistrări
+     * @param dictionaryPath calea fișierului dicționar de IBAN-uri
+     * @throws IOException dacă fișierele nu pot fi deschise sau au un format invalid
+     */
+    public BinaryLedger(String ledgerPath, String dictionaryPath) throws IOException {
+        this.dictionaryPath = Paths.get(dictionaryPath);
+        this.channel = FileChannel.open(Paths.get(ledgerPath), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putLong(0).flip();
+            channel.write(header, 0);
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Invalid ledger file: " + ledgerPath);
+            }
+            recordCount = header.getLong();
+        }
+        if (Files.exists(this.dictionaryPath)) {
+            for (String iban : Files.readAllLines(this.dictionaryPath, StandardCharsets.UTF_8)) {
+                ibanIds.put(iban, ibans.size());
+                ibans.add(iban);
+            }
+        }
+    }
+
+    /**
+     * Deschide registrul binar la căile implicite din {@code src/resources}.
+     *
+     * @return registrul deschis
+     * @throws IOException dacă fișierele nu pot fi deschise
+     */
+    public static BinaryLedger open() throws IOException {
+        return new BinaryLedger(LEDGER_PATH, DICTIONARY_PATH);
+    }
+
+    /**
+     * @return numărul de înregistrări din registru
+     */
+    public synchronized long size() {
+        return recordCount;
+    }
+
+    /**
+     * Returnează IBAN-ul asociat unui ID din dicționar.
+     *
+     * @param ibanId ID-ul IBAN-ului
+     * @return IBAN-ul corespunzător
+     */
+    public synchronized String ibanOf(int ibanId) {
+        return ibans.get(ibanId);
+    }
+
+    /**
+     * Returnează ID-ul din dicționar al unui IBAN.
+     *
+     * @param iban IBAN-ul căutat
+     * @return ID-ul IBAN-ului sau -1 dacă nu apare în registru
+     */
+    public synchronized int idOf(String iban) {
+        Integer id = ibanIds.get(iban);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Parcurge toate înregistrările direct din buffer-ul mapat în memorie.
+     *
+     * @param visitor consumatorul înregistrărilor
+     * @throws IOException dacă fișierul nu poate fi mapat
+     */
+    public void forEach(RecordVisitor visitor) throws IOException {
+        forEach(0, visitor);
+    }
+
+    /**
+     * Parcurge înregistrările începând cu indicele dat, direct din buffer-ul mapat în memorie.
+     *
+     * @param fromRecord indicele primei înregistrări parcurse
+     * @param visitor consumatorul înregistrărilor
+     * @throws IOException dacă fișierul nu poate fi mapat
+     */
+    public void forEach(long fromRecord, RecordVisitor visitor) throws IOException {
+        long count = size() - fromRecord;
+        if (count <= 0) {
+            return;
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                HEADER_SIZE + fromRecord * RECORD_SIZE, count * RECORD_SIZE);
+        for (int position = 0; position < buffer.limit(); position += RECORD_SIZE) {
+            visitor.visit(buffer.getInt(position), buffer.getLong(position + 4), buffer.getInt(position + 12));
+        }
+    }
+
+    /**
+     * Încarcă toate tranzacțiile din registru ca obiecte {@link Transaction}.
+     *
+     * @return Lista de tranzacții
+     * @throws IOException dacă fișierul nu poate fi citit
+     */
+    public List<Transaction> loadTransactions() throws IOException {
+        return loadTransactions(0);
+    }
+
+    /**
+     * Încarcă tranzacțiile începând cu înregistrarea dată, de exemplu cele adăugate după un instantaneu.
+     *
+     * @param fromRecord indicele primei înregistrări încărcate
+     * @return Lista de tranzacții
+     * @throws IOException dacă fișierul nu poate fi citit
+     */
+    public List<Transaction> loadTransactions(long fromRecord) throws IOException {
+        List<Transaction> transactions = new ArrayList<>((int) Math.max(0, size() - fromRecord));
+        forEach(fromRecord, (ibanId, amountMinor, epochDay) -> transactions.add(new Transaction(ibanOf(ibanId),
+                Money.ofMinor(amountMinor), CsvCodec.toDate(epochDay))));
+        return transactions;
+    }
+
+    /**
+     * Deschide un flux leneș peste înregistrările de la indicele dat, citite direct din buffer-ul mapat în memorie.
+     * Fluxul cuprinde înregistrările existente la apel, iar fiecare {@link Transaction} este creată doar
+     * când fluxul ajunge la ea; fluxul poate fi împărțit pentru procesare paralelă.
+     *
+     * @param fromRecord indicele primei înregistrări
+     * @return Fluxul de tranzacții
+     * @throws IOException dacă fișierul nu poate fi mapat
+     */
+    public Stream<Transaction> stream(long fromRecord) throws IOException {
+        long count = size() - fromRecord;
+        if (count <= 0) {
+            return Stream.empty();
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                HEADER_SIZE + fromRecord * RECORD_SIZE, count * RECORD_SIZE);
+        return StreamSupport.stream(new RecordSpliterator(buffer, 0, (int) count), false);
+    }
+
+    /**
+     * Spliterator peste un interval de înregistrări dintr-un buffer mapat.
+     */
+    private final class RecordSpliterator implements Spliterator<Transaction> {
+        private final MappedByteBuffer buffer;
+        private int index;
+        private final int end;
+
+        private RecordSpliterator(MappedByteBuffer buffer, int index, int end) {
+            this.buffer = buffer;
+            this.index = index;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Transaction> action) {
+            if (index >= end) {
+                return false;
+            }
+            int position = index++ * RECORD_SIZE;
+            action.accept(new Transaction(ibanOf(buffer.getInt(position)),
+                    Money.ofMinor(buffer.getLong(position + 4)), CsvCodec.toDate(buffer.getInt(position + 12))));
+            return true;
+        }
+
+        @Override
+        public Spliterator<Transaction> trySplit() {
+            int middle = (index + end) >>> 1;
+            if (middle <= index) {
+                return null;
+            }
+            RecordSpliterator prefix = new RecordSpliterator(buffer, index, middle);
+            index = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+    }
+
+    /**
+     * Încarcă tranzacțiile unui IBAN, comparând doar ID-ul din dicționar al fiecărei înregistrări.
+     *
+     * @param iban IBAN-ul contului
+     * @return Lista de tranzacții ale contului, în ordinea din registru
+     * @throws IOException dacă fișierul nu poate fi citit
+     */
+    public List<Transaction> loadTransactionsByIban(String iban) throws IOException {
+        List<Transaction> transactions = new ArrayList<>();
+        int id = idOf(iban);
+        if (id < 0) {
+            return transactions;
+        }
+        forEach((ibanId, amountMinor, epochDay) -> {
+            if (ibanId == id) {
+                transactions.add(new Transaction(iban, Money.ofMinor(amountMinor), CsvCodec.toDate(epochDay)));
+            }
+        });
+        return transactions;
+    }
+
+    /**
+     * Adaugă tranzacțiile la finalul registrului și actualizează numărul de înregistrări din antet.
+     * IBAN-urile noi sunt scrise și sincronizate pe disc în dicționar înaintea înregistrărilor care le folosesc,
+     * iar în memorie sunt înregistrate doar după ce dicționarul a fost scris, astfel încât o cădere sau o eroare
+     * nu lasă înregistrări durabile cu ID-uri fără IBAN și nici dicționarul din memorie diferit de cel de pe disc.
+     * Înregistrările sunt sincronizate pe disc înainte de scrierea noului număr din antet, care este apoi
+     * sincronizat separat, astfel încât după o cădere antetul nu acoperă niciodată înregistrări nescrise.
+     *
+     * @param transactions tranzacțiile de adăugat
+     * @return numărul de înregistrări din registru după adăugare
+     * @throws IOException dacă apare o eroare de scriere
+     */
+    public synchronized long append(List<Transaction> transactions) throws IOException {
+        if (transactions.isEmpty()) {
+            return recordCount;
+        }
+        List<String> newIbans = new ArrayList<>();
+        Map<String, Integer> newIds = new HashMap<>();
+        ByteBuffer records = ByteBuffer.allocate(transactions.size() * RECORD_SIZE);
+        for (Transaction transaction : transactions) {
+            String iban = transaction.getIban();
+            Integer id = ibanIds.get(iban);
+            if (id == null) {
+                id = newIds.get(iban);
+            }
+            if (id == null) {
+                id = ibans.size() + newIbans.size();
+                newIds.put(iban, id);
+                newIbans.add(iban);
+            }
+            records.putInt(id)
+                    .putLong(transaction.getAmountMinor())
+                    .putInt(CsvCodec.epochDayOf(transaction.getDate()));
+        }
+        if (!newIbans.isEmpty()) {
+            appendToDictionary(newIbans);
+            for (String iban : newIbans) {
+                ibanIds.put(iban, ibans.size());
+                ibans.add(iban);
+            }
+        }
+        records.flip();
+        long position = HEADER_SIZE + recordCount * RECORD_SIZE;
+        while (records.hasRemaining()) {
+            position += channel.write(records, position);
+        }
+        channel.force(false);
+        long newCount = recordCount + transactions.size();
+        ByteBuffer count = ByteBuffer.allocate(Long.BYTES).putLong(newCount);
+        count.flip();
+        channel.write(count, COUNT_OFFSET);
+        channel.force(false);
+        recordCount = newCount;
+        return recordCount;
+    }
+
+    /**
+     * Adaugă IBAN-uri noi la finalul dicționarului și le sincronizează pe disc.
+     * Dacă scrierea eșuează, dicționarul este trunchiat la dimensiunea de dinainte.
+     *
+     * @param newIbans IBAN-urile de adăugat, în ordinea ID-urilor lor
+     * @throws IOException dacă apare o eroare de scriere
+     */
+    private void appendToDictionary(List<String> newIbans) throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (String iban : newIbans) {
+            text.append(iban).append(System.lineSeparator());
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+        try (FileChannel dictionary = FileChannel.open(dictionaryPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE)) {
+            long start = dictionary.size();
+            try {
+                long position = start;
+                while (bytes.hasRemaining()) {
+                    position += dictionary.write(bytes, position);
+                }
+                dictionary.force(true);
+            } catch (IOException e) {
+                dictionary.truncate(start);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Convertește fișierul CSV de tranzacții într-un registru binar nou.
+     * Registrul și dicționarul existente la căile date sunt înlocuite.
+     *
+     * @param csvPath calea fișierului CSV sursă
+     * @param ledgerPath calea registrului binar
+     * @param dictionaryPath calea dicționarului de IBAN-uri
+     * @throws IOException dacă apare o eroare de citire sau scriere
+     */
+    public static void convertFromCsv(String csvPath, String ledgerPath, String dictionaryPath) throws IOException {
+        Files.deleteIfExists(Paths.get(ledgerPath));
+        Files.deleteIfExists(Paths.get(dictionaryPath));
+        try (BinaryLedger ledger = new BinaryLedger(ledgerPath, dictionaryPath)) {
+            ledger.append(TransactionRepository.loadTransactions(csvPath));
+        }
+    }
+
+    /**
+     * Exportă registrul binar în formatul CSV folosit de {@link TransactionRepository}.
+     *
+     * @param csvPath calea fișierului CSV destinație
+     * @throws IOException dacă apare o eroare de citire sau scriere
+     */
+    public void exportToCsv(String csvPath) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(csvPath))) {
+            CsvCodec.RecordWriter records = new CsvCodec.RecordWriter(writer);
+            IOException[] failure = new IOException[1];
+            forEach((ibanId, amountMinor, epochDay) -> {
+                if (failure[0] != null) {
+                    return;
+                }
+                try {
+                    records.text(ibanOf(ibanId)).money(amountMinor).date(epochDay).endRecord();
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+        }
+    }
+
+    /**
+     * Închide registrul.
+     *
+     * @throws IOException dacă apare o eroare la închiderea fișierului
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Conversie într-un singur pas între fișierul CSV implicit și registrul binar.
+     * Folosire: {@code BinaryLedger import} sau {@code BinaryLedger export <fisier.csv>}.
+     *
+     * @param args argumentele din linia de comandă
+     * @throws IOException dacă apare o eroare de citire sau scriere
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 1 && args[0].equals("import")) {
+            convertFromCsv(TransactionRepository.FILE_PATH, LEDGER_PATH, DICTIONARY_PATH);
+        } else if (args.length >= 2 && args[0].equals("export")) {
+            try (BinaryLedger ledger = open()) {
+                ledger.exportToCsv(args[1]);
+            }
+        } else {
+            System.out.println("Usage: BinaryLedger import | export <file.csv>");
+        }
+    }
+}
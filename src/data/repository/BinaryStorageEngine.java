@@ -0,0 +1,143 @@
+package data.repository;
+
+import data.models.Account;
+import data.models.Transaction;
+import data.models.User;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Motor de stocare care păstrează tranzacțiile în {@link BinaryLedger}, citit prin fișiere mapate în memorie.
+ * Utilizatorii și conturile rămân în fișierele CSV din același director și sunt gestionate de {@link CsvStorageEngine}.
+ * La prima deschidere, dacă registrul binar nu există, el este creat din fișierul CSV de tranzacții.
+ * Poziția în jurnal este numărul de înregistrări din registru.
+ */
+public class BinaryStorageEngine implements StorageEngine {
+    private static final String LEDGER_FILE = "transactions_ledger.bin";
+    private static final String DICTIONARY_FILE = "transactions_ledger.ibans";
+    private static final String SNAPSHOT_FILE = "transactions_ledger.snapshot";
+
+    private final CsvStorageEngine files;
+    private final String usersPath;
+    private final String accountsPath;
+    private final String transactionsPath;
+    private final String ledgerPath;
+    private final String dictionaryPath;
+    private final String snapshotPath;
+    private BinaryLedger ledger;
+
+    /**
+     * Creează motorul pentru fișierele din directorul dat.
+     *
+     * @param directory directorul fișierelor de date
+     */
+    public BinaryStorageEngine(String directory) {
+        Path root = Paths.get(directory);
+        this.files = new CsvStorageEngine(directory);
+        this.usersPath = root.resolve(CsvStorageEngine.USERS_FILE).toString();
+        this.accountsPath = root.resolve(CsvStorageEngine.ACCOUNTS_FILE).toString();
+        this.transactionsPath = root.resolve(CsvStorageEngine.TRANSACTIONS_FILE).toString();
+        this.ledgerPath = root.resolve(LEDGER_FILE).toString();
+        this.dictionaryPath = root.resolve(DICTIONARY_FILE).toString();
+        this.snapshotPath = root.resolve(SNAPSHOT_FILE).toString();
+    }
+
+    @Override
+    public List<User> loadUsers() throws IOException {
+        return files.loadUsers();
+    }
+
+    @Override
+    public void saveUsers(List<User> users) throws IOException {
+        files.saveUsers(users);
+    }
+
+    @Override
+    public List<Account> loadAccounts() throws IOException {
+        return files.loadAccounts();
+    }
+
+    @Override
+    public void saveAccounts(List<Account> accounts) throws IOException {
+        files.saveAccounts(accounts);
+    }
+
+    @Override
+    public void applyAccountChanges(List<Account> upserted, List<String> deletedIbans) throws IOException {
+        files.applyAccountChanges(upserted, deletedIbans);
+    }
+
+    @Override
+    public List<Transaction> loadTransactions() throws IOException {
+        return ledger().loadTransactions();
+    }
+
+    @Override
+    public List<Transaction> loadTransactionsByIban(String iban) throws IOException {
+        return ledger().loadTransactionsByIban(iban);
+    }
+
+    @Override
+    public Stream<Transaction> streamTransactions() throws IOException {
+        return ledger().stream(0);
+    }
+
+    @Override
+    public long appendTransactions(List<Transaction> transactions) throws IOException {
+        return ledger().append(transactions);
+    }
+
+    @Override
+    public long journalPosition() throws IOException {
+        return ledger().size();
+    }
+
+    @Override
+    public List<Transaction> loadTransactionsSince(long position) throws IOException {
+        return ledger().loadTransactions(position);
+    }
+
+    @Override
+    public SnapshotRepository.Snapshot loadSnapshot() {
+        return SnapshotRepository.load(snapshotPath, usersPath, accountsPath);
+    }
+
+    @Override
+    public void saveSnapshot(SnapshotRepository.Snapshot snapshot) throws IOException {
+        SnapshotRepository.save(snapshotPath, usersPath, accountsPath, snapshot);
+    }
+
+    /**
+     * Închide registrul binar, dacă a fost deschis.
+     *
+     * @throws IOException dacă apare o eroare la închiderea fișierului
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (ledger != null) {
+            ledger.close();
+            ledger = null;
+        }
+    }
+
+    /**
+     * Returnează registrul binar, deschizându-l (și importând fișierul CSV, dacă e nevoie) la prima utilizare.
+     *
+     * @return registrul binar de tranzacții
+     * @throws IOException dacă registrul nu poate fi deschis sau creat
+     */
+    private synchronized BinaryLedger ledger() throws IOException {
+        if (ledger == null) {
+            if (!Files.exists(Paths.get(ledgerPath)) && Files.exists(Paths.get(transactionsPath))) {
+                BinaryLedger.convertFromCsv(transactionsPath, ledgerPath, dictionaryPath);
+            }
+            ledger = new BinaryLedger(ledgerPath, dictionaryPath);
+        }
+        return ledger;
+    }
+}
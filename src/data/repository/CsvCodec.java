@@ -0,0 +1,406 @@
+package data.repository;
+
+import data.models.Money;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * Codec CSV comun pentru repository-uri.
+ * Citirea se face direct dintr-un buffer de caractere, fără {@link String#split(String)}:
+ * câmpurile sunt delimitate prin poziții, iar sumele și datele {@code yyyy-MM-dd} sunt interpretate
+ * direct din buffer, fără șiruri intermediare sau obiecte {@link java.text.SimpleDateFormat}.
+ * Scrierea folosește un buffer reutilizabil pentru fiecare înregistrare.
+ */
+public class CsvCodec {
+    /**
+     * Valoare întoarsă pentru o dată care nu respectă formatul {@code yyyy-MM-dd}.
+     */
+    public static final int INVALID_DAY = Integer.MIN_VALUE;
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    /**
+     * Interpretează o dată {@code yyyy-MM-dd} din buffer ca zi a epocii.
+     *
+     * @param chars buffer-ul de caractere
+     * @param start începutul câmpului (inclusiv)
+     * @param end sfârșitul câmpului (exclusiv)
+     * @return ziua epocii sau {@link #INVALID_DAY} dacă formatul nu este respectat
+     */
+    public static int parseEpochDay(char[] chars, int start, int end) {
+        if (end - start != 10 || chars[start + 4] != '-' || chars[start + 7] != '-') {
+            return INVALID_DAY;
+        }
+        int year = digits(chars, start, 4);
+        int month = digits(chars, start + 5, 2);
+        int day = digits(chars, start + 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+            return INVALID_DAY;
+        }
+        return (int) epochDay(year, month, day);
+    }
+
+    /**
+     * Convertește o zi a epocii în {@link Date} la miezul nopții, în fusul orar implicit.
+     *
+     * @param epochDay ziua epocii
+     * @return data corespunzătoare
+     */
+    public static Date toDate(int epochDay) {
+        TimeZone zone = TimeZone.getDefault();
+        long local = epochDay * MILLIS_PER_DAY;
+        int offset = zone.getOffset(local - zone.getRawOffset());
+        offset = zone.getOffset(local - offset);
+        return new Date(local - offset);
+    }
+
+    /**
+     * Convertește o {@link Date} în ziua epocii, în fusul orar implicit.
+     *
+     * @param date data de convertit
+     * @return ziua epocii
+     */
+    public static int epochDayOf(Date date) {
+        long time = date.getTime();
+        return (int) Math.floorDiv(time + TimeZone.getDefault().getOffset(time), MILLIS_PER_DAY);
+    }
+
+    /**
+     * Scrie o zi a epocii în formatul {@code yyyy-MM-dd}.
+     *
+     * @param builder destinația
+     * @param epochDay ziua epocii
+     */
+    public static void appendDate(StringBuilder builder, int epochDay) {
+        // algoritmul "civil from days" (H. Hinnant), fără obiecte intermediare
+        long z = epochDay + 719468L;
+        long era = Math.floorDiv(z, 146097L);
+        long doe = z - era * 146097L;
+        long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp = (5 * doy + 2) / 153;
+        int day = (int) (doy - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        int year = (int) (yoe + era * 400 + (month <= 2 ? 1 : 0));
+        appendPadded(builder, year, 4).append('-');
+        appendPadded(builder, month, 2).append('-');
+        appendPadded(builder, day, 2);
+    }
+
+    private static StringBuilder appendPadded(StringBuilder builder, int value, int width) {
+        for (int limit = 10, i = 1; i < width; i++, limit *= 10) {
+            if (value < limit) {
+                builder.append('0');
+            }
+        }
+        return builder.append(value);
+    }
+
+    private static int digits(char[] chars, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = chars[i];
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static long epochDay(int year, int month, int day) {
+        // algoritmul "days from civil" (H. Hinnant)
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yoe = y - era * 400;
+        long doy = (153L * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+    }
+
+    /**
+     * Cititor de înregistrări CSV care parcurge un buffer de caractere și reține doar pozițiile câmpurilor.
+     * Spațiile de la începutul și finalul fiecărui câmp sunt ignorate.
+     */
+    public static class RecordReader {
+        private final Reader source;
+        private char[] buffer;
+        private int limit;
+        private int position;
+        private boolean eof;
+
+        private char[] record;
+        private int[] starts = new int[8];
+        private int[] ends = new int[8];
+        private int fieldCount;
+
+        /**
+         * Creează un cititor peste sursa de caractere dată.
+         *
+         * @param source sursa de caractere
+         */
+        public RecordReader(Reader source) {
+            this.source = source;
+            this.buffer = new char[source == null ? 16 : 64 * 1024];
+            this.record = buffer;
+        }
+
+        /**
+         * Creează un cititor fără sursă, folosit doar cu {@link #parse(CharSequence)}.
+         */
+        public RecordReader() {
+            this(null);
+        }
+
+        /**
+         * Avansează la următoarea înregistrare nevidă.
+         *
+         * @return true dacă a fost citită o înregistrare, false la finalul sursei
+         * @throws IOException dacă apare o eroare de citire
+         */
+        public boolean next() throws IOException {
+            while (true) {
+                int lineEnd = indexOfNewline();
+                while (lineEnd < 0 && !eof) {
+                    fill();
+                    lineEnd = indexOfNewline();
+                }
+                if (lineEnd < 0) {
+                    if (position >= limit) {
+                        return false;
+                    }
+                    lineEnd = limit;
+                }
+                int lineStart = position;
+                position = Math.min(lineEnd + 1, limit);
+                record = buffer;
+                split(lineStart, lineEnd);
+                if (fieldCount > 1 || ends[0] > starts[0]) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Interpretează o singură linie, independent de sursă.
+         *
+         * @param line linia CSV
+         */
+        public void parse(CharSequence line) {
+            if (record == buffer || record.length < line.length()) {
+                record = new char[Math.max(128, line.length())];
+            }
+            for (int i = 0; i < line.length(); i++) {
+                record[i] = line.charAt(i);
+            }
+            split(0, line.length());
+        }
+
+        /**
+         * @return numărul de câmpuri ale înregistrării curente
+         */
+        public int fieldCount() {
+            return fieldCount;
+        }
+
+        /**
+         * @param index indexul câmpului
+         * @return textul câmpului
+         */
+        public String text(int index) {
+            return new String(record, starts[index], ends[index] - starts[index]);
+        }
+
+        /**
+         * Compară textul unui câmp cu o valoare, fără a crea un șir nou.
+         *
+         * @param index indexul câmpului
+         * @param value valoarea de comparat
+         * @return true dacă textul câmpului este egal cu valoarea
+         */
+        public boolean textEquals(int index, String value) {
+            int length = ends[index] - starts[index];
+            if (length != value.length()) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (record[starts[index] + i] != value.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @param index indexul câmpului
+         * @return suma din câmp, în subunități
+         * @throws NumberFormatException dacă textul nu este o sumă validă
+         */
+        public long money(int index) {
+            return Money.parseMinor(record, starts[index], ends[index]);
+        }
+
+        /**
+         * @param index indexul câmpului
+         * @return ziua epocii sau {@link #INVALID_DAY}
+         */
+        public int epochDay(int index) {
+            return parseEpochDay(record, starts[index], ends[index]);
+        }
+
+        private int indexOfNewline() {
+            for (int i = position; i < limit; i++) {
+                if (buffer[i] == '\n') {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void fill() throws IOException {
+            if (position > 0) {
+                System.arraycopy(buffer, position, buffer, 0, limit - position);
+                limit -= position;
+                position = 0;
+            }
+            if (limit == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            int read = source == null ? -1 : source.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                eof = true;
+            } else {
+                limit += read;
+            }
+        }
+
+        private void split(int start, int end) {
+            fieldCount = 0;
+            int fieldStart = start;
+            for (int i = start; i <= end; i++) {
+                if (i == end || record[i] == ',') {
+                    addField(fieldStart, i);
+                    fieldStart = i + 1;
+                }
+            }
+        }
+
+        private void addField(int start, int end) {
+            while (start < end && Character.isWhitespace(record[start])) {
+                start++;
+            }
+            while (end > start && Character.isWhitespace(record[end - 1])) {
+                end--;
+            }
+            if (fieldCount == starts.length) {
+                starts = Arrays.copyOf(starts, fieldCount * 2);
+                ends = Arrays.copyOf(ends, fieldCount * 2);
+            }
+            starts[fieldCount] = start;
+            ends[fieldCount] = end;
+            fieldCount++;
+        }
+    }
+
+    /**
+     * Scriitor de înregistrări CSV care construiește fiecare linie într-un buffer reutilizabil.
+     */
+    public static class RecordWriter {
+        private final Writer target;
+        private final StringBuilder line = new StringBuilder(128);
+        private char[] chars = new char[128];
+        private boolean firstField = true;
+
+        /**
+         * Creează un scriitor peste destinația dată.
+         *
+         * @param target destinația caracterelor
+         */
+        public RecordWriter(Writer target) {
+            this.target = target;
+        }
+
+        /**
+         * Adaugă un câmp text.
+         *
+         * @param value textul câmpului
+         * @return acest scriitor
+         */
+        public RecordWriter text(CharSequence value) {
+            separator();
+            line.append(value);
+            return this;
+        }
+
+        /**
+         * Adaugă un câmp sumă, cu exact două zecimale.
+         *
+         * @param minor suma în subunități
+         * @return acest scriitor
+         */
+        public RecordWriter money(long minor) {
+            separator();
+            Money.appendTo(line, minor);
+            return this;
+        }
+
+        /**
+         * Adaugă un câmp dată în formatul {@code yyyy-MM-dd}.
+         *
+         * @param epochDay ziua epocii
+         * @return acest scriitor
+         */
+        public RecordWriter date(int epochDay) {
+            separator();
+            appendDate(line, epochDay);
+            return this;
+        }
+
+        /**
+         * Încheie înregistrarea curentă și o scrie în destinație.
+         *
+         * @throws IOException dacă apare o eroare de scriere
+         */
+        public void endRecord() throws IOException {
+            line.append(System.lineSeparator());
+            int length = line.length();
+            if (chars.length < length) {
+                chars = new char[Math.max(length, chars.length * 2)];
+            }
+            line.getChars(0, length, chars, 0);
+            target.write(chars, 0, length);
+            line.setLength(0);
+            firstField = true;
+        }
+
+        private void separator() {
+            if (!firstField) {
+                line.append(',');
+            }
+            firstField = false;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package data.repository;
+
+import data.models.Account;
+import data.models.Transaction;
+import data.models.User;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * Motorul de stocare implicit, bazat pe fișierele CSV ale aplicației.
+ * Tranzacțiile sunt adăugate prin {@link TransactionJournal}, iar interogările pe IBAN folosesc
+ * {@link TransactionIndex}. Poziția în jurnal este mărimea în octeți a fișierului de tranzacții.
+ */
+public class CsvStorageEngine implements StorageEngine {
+    static final String USERS_FILE = "users_file.txt";
+    static final String ACCOUNTS_FILE = "accounts_file.txt";
+    static final String TRANSACTIONS_FILE = "transactions_file.txt";
+    private static final String INDEX_FILE = "transactions_file.idx";
+    private static final String SNAPSHOT_FILE = "snapshot.bin";
+    private static final long JOURNAL_WINDOW_MILLIS = Long.getLong("ebanking.journal.windowMillis", 2);
+    private static final int ACCOUNTS_COMPACT_AFTER = Integer.getInteger("ebanking.accounts.compactAfter", 1000);
+
+    private final String usersPath;
+    private final String accountsPath;
+    private final String accountsLogPath;
+    private final String transactionsPath;
+    private final String indexPath;
+    private final String snapshotPath;
+    private TransactionJournal journal;
+    private TransactionIndex index;
+    private int accountLogEntries = -1;
+
+    /**
+     * Creează motorul pentru fișierele CSV din directorul dat.
+     *
+     * @param directory directorul fișierelor de date
+     */
+    public CsvStorageEngine(String directory) {
+        Path root = Paths.get(directory);
+        this.usersPath = root.resolve(USERS_FILE).toString();
+        this.accountsPath = root.resolve(ACCOUNTS_FILE).toString();
+        this.accountsLogPath = AccountRepository.changeLogPath(accountsPath);
+        this.transactionsPath = root.resolve(TRANSACTIONS_FILE).toString();
+        this.indexPath = root.resolve(INDEX_FILE).toString();
+        this.snapshotPath = root.resolve(SNAPSHOT_FILE).toString();
+    }
+
+    @Override
+    public List<User> loadUsers() throws IOException {
+        return UserRepository.loadUsers(usersPath);
+    }
+
+    @Override
+    public void saveUsers(List<User> users) throws IOException {
+        UserRepository.saveUsers(usersPath, users);
+    }
+
+    @Override
+    public synchronized List<Account> loadAccounts() throws IOException {
+        return AccountRepository.loadAccounts(accountsPath, accountsLogPath);
+    }
+
+    @Override
+    public synchronized void saveAccounts(List<Account> accounts) throws IOException {
+        AccountRepository.saveAccounts(accountsPath, accounts);
+        Files.deleteIfExists(Paths.get(accountsLogPath));
+        accountLogEntries = 0;
+    }
+
+    /**
+     * Adaugă modificările în jurnalul de modificări al conturilor. Când jurnalul depășește
+     * {@code ebanking.accounts.compactAfter} intrări (implicit 1000), este compactat în fișierul de bază.
+     *
+     * @param upserted conturile inserate sau actualizate
+     * @param deletedIbans IBAN-urile conturilor șterse
+     * @throws IOException dacă apare o eroare de scriere
+     */
+    @Override
+    public synchronized void applyAccountChanges(List<Account> upserted, List<String> deletedIbans)
+            throws IOException {
+        if (upserted.isEmpty() && deletedIbans.isEmpty()) {
+            return;
+        }
+        if (accountLogEntries < 0) {
+            Path log = Paths.get(accountsLogPath);
+            try (Stream<String> lines = Files.exists(log) ? Files.lines(log) : Stream.empty()) {
+                accountLogEntries = (int) lines.count();
+            }
+        }
+        AccountRepository.appendChanges(accountsLogPath, upserted, deletedIbans);
+        accountLogEntries += upserted.size() + deletedIbans.size();
+        if (accountLogEntries > ACCOUNTS_COMPACT_AFTER) {
+            AccountRepository.compact(accountsPath, accountsLogPath);
+            accountLogEntries = 0;
+        }
+    }
+
+    @Override
+    public List<Transaction> loadTransactions() throws IOException {
+        return ParallelTransactionLoader.loadTransactions(transactionsPath, ForkJoinPool.commonPool());
+    }
+
+    @Override
+    public List<Transaction> loadTransactionsByIban(String iban) throws IOException {
+        TransactionIndex index = index();
+        index.catchUp();
+        return TransactionRepository.loadTransactionsAt(transactionsPath, index.positionsOf(iban));
+    }
+
+    @Override
+    public Stream<Transaction> streamTransactions() throws IOException {
+        return TransactionRepository.streamTransactions(transactionsPath);
+    }
+
+    /**
+     * Adaugă tranzacțiile prin jurnalul append-only; apelurile concurente sunt grupate
+     * într-o singură scriere și un singur fsync.
+     *
+     * @param transactions tranzacțiile de adăugat
+     * @throws IOException dacă apare o eroare de scriere
+     */
+    @Override
+    public long appendTransactions(List<Transaction> transactions) throws IOException {
+        long position = journal().appendAll(transactions);
+        index().catchUp();
+        return position;
+    }
+
+    @Override
+    public long journalPosition() throws IOException {
+        Path path = Paths.get(transactionsPath);
+        return Files.exists(path) ? Files.size(path) : 0;
+    }
+
+    @Override
+    public List<Transaction> loadTransactionsSince(long position) throws IOException {
+        return TransactionRepository.loadTransactionsSince(transactionsPath, position);
+    }
+
+    @Override
+    public SnapshotRepository.Snapshot loadSnapshot() {
+        return SnapshotRepository.load(snapshotPath, usersPath, accountsPath);
+    }
+
+    @Override
+    public void saveSnapshot(SnapshotRepository.Snapshot snapshot) throws IOException {
+        SnapshotRepository.save(snapshotPath, usersPath, accountsPath, snapshot);
+    }
+
+    /**
+     * Închide jurnalul de tranzacții, dacă a fost deschis.
+     *
+     * @throws IOException dacă apare o eroare la închiderea fișierului
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (journal != null) {
+            journal.close();
+            journal = null;
+        }
+    }
+
+    /**
+     * Returnează jurnalul motorului, deschizându-l la prima utilizare.
+     *
+     * @return jurnalul de tranzacții
+     * @throws IOException dacă fișierul nu poate fi deschis
+     */
+    private synchronized TransactionJournal journal() throws IOException {
+        if (journal == null) {
+            journal = new TransactionJournal(transactionsPath, JOURNAL_WINDOW_MILLIS);
+        }
+        return journal;
+    }
+
+    /**
+     * Returnează indexul pe IBAN, deschizându-l la prima utilizare.
+     *
+     * @return indexul tranzacțiilor pe IBAN
+     * @throws IOException dacă indexul nu poate fi încărcat
+     */
+    private synchronized TransactionIndex index() throws IOException {
+        if (index == null) {
+            index = new TransactionIndex(transactionsPath, indexPath);
+        }
+        return index;
+    }
+}
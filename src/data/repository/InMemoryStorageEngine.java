@@ -0,0 +1,129 @@
+package data.repository;
+
+import data.models.Account;
+import data.models.IbanDictionary;
+import data.models.Transaction;
+import data.models.User;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Motor de stocare care păstrează toate datele doar în memorie.
+ * Este util pentru teste și demonstrații; datele se pierd la oprirea aplicației.
+ * Poziția în jurnal este numărul de tranzacții adăugate.
+ */
+public class InMemoryStorageEngine implements StorageEngine {
+    private final List<User> users = new ArrayList<>();
+    private final List<Account> accounts = new ArrayList<>();
+    private final List<Transaction> transactions = new ArrayList<>();
+    private SnapshotRepository.Snapshot snapshot;
+
+    /**
+     * Creează un motor gol.
+     */
+    public InMemoryStorageEngine() {
+    }
+
+    /**
+     * Creează un motor populat cu datele unui alt motor (de exemplu fișierele CSV existente).
+     *
+     * @param seed motorul din care se copiază datele inițiale
+     * @throws IOException dacă datele nu pot fi citite din motorul sursă
+     */
+    public InMemoryStorageEngine(StorageEngine seed) throws IOException {
+        users.addAll(seed.loadUsers());
+        accounts.addAll(seed.loadAccounts());
+        transactions.addAll(seed.loadTransactions());
+    }
+
+    @Override
+    public synchronized List<User> loadUsers() {
+        return new ArrayList<>(users);
+    }
+
+    @Override
+    public synchronized void saveUsers(List<User> users) {
+        this.users.clear();
+        this.users.addAll(users);
+    }
+
+    @Override
+    public synchronized List<Account> loadAccounts() {
+        return new ArrayList<>(accounts);
+    }
+
+    @Override
+    public synchronized void saveAccounts(List<Account> accounts) {
+        this.accounts.clear();
+        this.accounts.addAll(accounts);
+    }
+
+    @Override
+    public synchronized void applyAccountChanges(List<Account> upserted, List<String> deletedIbans) {
+        accounts.removeIf(account -> deletedIbans.contains(account.getIban()));
+        for (Account change : upserted) {
+            boolean replaced = false;
+            for (int i = 0; i < accounts.size(); i++) {
+                if (accounts.get(i).getIbanId() == change.getIbanId()) {
+                    accounts.set(i, change);
+                    replaced = true;
+                }
+            }
+            if (!replaced) {
+                accounts.add(change);
+            }
+        }
+    }
+
+    @Override
+    public synchronized List<Transaction> loadTransactions() {
+        return new ArrayList<>(transactions);
+    }
+
+    @Override
+    public synchronized List<Transaction> loadTransactionsByIban(String iban) {
+        int ibanId = IbanDictionary.lookup(iban);
+        return transactions.stream()
+                .filter(transaction -> transaction.getIbanId() == ibanId)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Stream<Transaction> streamTransactions() {
+        return loadTransactions().stream();
+    }
+
+    @Override
+    public synchronized long appendTransactions(List<Transaction> transactions) {
+        this.transactions.addAll(transactions);
+        return this.transactions.size();
+    }
+
+    @Override
+    public synchronized long journalPosition() {
+        return transactions.size();
+    }
+
+    @Override
+    public synchronized List<Transaction> loadTransactionsSince(long position) {
+        return new ArrayList<>(transactions.subList((int) Math.min(position, transactions.size()), transactions.size()));
+    }
+
+    @Override
+    public synchronized SnapshotRepository.Snapshot loadSnapshot() {
+        return snapshot;
+    }
+
+    @Override
+    public synchronized void saveSnapshot(SnapshotRepository.Snapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    @Override
+    public void close() {
+    }
+}
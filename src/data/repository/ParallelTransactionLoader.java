@@ -0,0 +1,157 @@
+package data.repository;
+
+import data.models.Transaction;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Încărcător paralel pentru fișiere mari de tranzacții.
+ * Fișierul este împărțit în intervale de octeți aliniate la sfârșit de linie, iar fiecare interval
+ * este interpretat separat pe un {@link ForkJoinPool}. Rezultatele sunt concatenate în ordinea din fișier.
+ */
+public class ParallelTransactionLoader {
+    private static final long MIN_CHUNK_SIZE = 1024 * 1024;
+    private static final long MAX_CHUNK_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * Încarcă tranzacțiile din fișierul implicit pe pool-ul comun.
+     *
+     * @return Lista de tranzacții, în ordinea din fișier
+     * @throws IOException dacă apare o eroare de citire a fișierului
+     */
+    public static List<Transaction> loadTransactions() throws IOException {
+        return loadTransactions(TransactionRepository.FILE_PATH, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Încarcă tranzacțiile din fișierul dat, în paralel, pe pool-ul specificat.
+     *
+     * @param filePath calea fișierului CSV
+     * @param pool pool-ul pe care rulează interpretarea
+     * @return Lista de tranzacții, în ordinea din fișier
+     * @throws IOException dacă apare o eroare de citire a fișierului
+     */
+    public static List<Transaction> loadTransactions(String filePath, ForkJoinPool pool) throws IOException {
+        if (pool.getParallelism() <= 1) {
+            return TransactionRepository.loadTransactions(filePath);
+        }
+        Path path = Paths.get(filePath);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long[] boundaries = boundaries(channel, pool.getParallelism());
+            return pool.invoke(new ChunkTask(channel, boundaries, 0, boundaries.length - 1));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Calculează limitele intervalelor, mutând fiecare limită nominală imediat după următorul '\n'.
+     *
+     * @param channel canalul fișierului
+     * @param parallelism nivelul de paralelism al pool-ului
+     * @return limitele intervalelor; intervalul i este [boundaries[i], boundaries[i + 1])
+     * @throws IOException dacă apare o eroare de citire
+     */
+    private static long[] boundaries(FileChannel channel, int parallelism) throws IOException {
+        long size = channel.size();
+        long chunkSize = Math.min(MAX_CHUNK_SIZE, Math.max(MIN_CHUNK_SIZE, size / (parallelism * 4L) + 1));
+        List<Long> result = new ArrayList<>();
+        result.add(0L);
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long position = chunkSize;
+        while (position < size) {
+            long boundary = nextLineStart(channel, position, buffer);
+            if (boundary >= size) {
+                break;
+            }
+            result.add(boundary);
+            position = boundary + chunkSize;
+        }
+        result.add(size);
+        return result.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static long nextLineStart(FileChannel channel, long position, ByteBuffer buffer) throws IOException {
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * Sarcină fork-join care împarte intervalele în jumătăți până la un singur interval,
+     * pe care îl citește și îl interpretează.
+     */
+    private static class ChunkTask extends RecursiveTask<List<Transaction>> {
+        private final FileChannel channel;
+        private final long[] boundaries;
+        private final int from;
+        private final int to;
+
+        ChunkTask(FileChannel channel, long[] boundaries, int from, int to) {
+            this.channel = channel;
+            this.boundaries = boundaries;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<Transaction> compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                ChunkTask left = new ChunkTask(channel, boundaries, from, middle);
+                ChunkTask right = new ChunkTask(channel, boundaries, middle, to);
+                right.fork();
+                List<Transaction> result = left.compute();
+                result.addAll(right.join());
+                return result;
+            }
+            try {
+                return parse(boundaries[from], boundaries[to]);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private List<Transaction> parse(long start, long end) throws IOException {
+            ByteBuffer bytes = ByteBuffer.allocate((int) (end - start));
+            while (bytes.hasRemaining()) {
+                if (channel.read(bytes, start + bytes.position()) < 0) {
+                    break;
+                }
+            }
+            List<Transaction> transactions = new ArrayList<>(bytes.position() / 40 + 1);
+            CsvCodec.RecordReader records = new CsvCodec.RecordReader(new InputStreamReader(
+                    new ByteArrayInputStream(bytes.array(), 0, bytes.position()), StandardCharsets.UTF_8));
+            while (records.next()) {
+                Transaction transaction = TransactionRepository.toTransaction(records);
+                if (transaction != null) {
+                    transactions.add(transaction);
+                }
+            }
+            return transactions;
+        }
+    }
+}
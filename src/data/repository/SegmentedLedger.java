@@ -0,0 +1,614 @@
+package data.repository;
+
+import data.models.Transaction;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Registru de tranzacții împărțit pe segmente lunare.
+ * Luna curentă este un segment deschis ({@code yyyy-MM.csv}), în formatul CSV obișnuit.
+ * Segmentele închise ({@code yyyy-MM.seg}) sunt comprimate cu {@link Deflater} și au la final un subsol
+ * necomprimat cu data minimă și maximă, generația segmentului și numărul de tranzacții pe IBAN. Interogările pe
+ * un interval de date sau pe un IBAN citesc doar subsolul segmentelor care nu pot conține rezultate, fără să le
+ * decomprime.
+ * Ordinea în care au fost adăugate tranzacțiile este păstrată separat, în fișierul {@code journal.order}
+ * (câte o lună pentru fiecare tranzacție), astfel încât registrul poate fi citit și în ordinea jurnalului,
+ * iar poziția în jurnal este numărul de tranzacții adăugate.
+ */
+public class SegmentedLedger {
+    public static final String DIRECTORY = "src/resources/ledger";
+
+    private static final String OPEN_SUFFIX = ".csv";
+    private static final String CLOSED_SUFFIX = ".seg";
+    private static final String SEALING_SUFFIX = ".sealing";
+    private static final String ORDER_FILE = "journal.order";
+    private static final int FOOTER_MAGIC = 0x45425348;
+
+    private final Path directory;
+    private final Path orderPath;
+    private long size;
+
+    /**
+     * Subsolul unui segment închis.
+     */
+    private static class Footer {
+        private final int minDay;
+        private final int maxDay;
+        private final int generation;
+        private final Map<String, Integer> countsByIban;
+
+        private Footer(int minDay, int maxDay, int generation, Map<String, Integer> countsByIban) {
+            this.minDay = minDay;
+            this.maxDay = maxDay;
+            this.generation = generation;
+            this.countsByIban = countsByIban;
+        }
+
+        private boolean mayContain(String iban, int fromDay, int toDay) {
+            if (maxDay < fromDay || minDay > toDay) {
+                return false;
+            }
+            return iban == null || countsByIban.containsKey(iban);
+        }
+
+        private long total() {
+            long total = 0;
+            for (int count : countsByIban.values()) {
+                total += count;
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Cursor peste tranzacțiile unei luni, în ordinea adăugării: întâi segmentul închis, apoi cel deschis.
+     */
+    private static class MonthCursor implements Closeable {
+        private final List<Reader> sources;
+        private long toSkip;
+        private int current;
+        private CsvCodec.RecordReader records;
+
+        private MonthCursor(List<Reader> sources, long toSkip) {
+            this.sources = sources;
+            this.toSkip = toSkip;
+        }
+
+        private Transaction next() throws IOException {
+            while (current < sources.size()) {
+                if (records == null) {
+                    records = new CsvCodec.RecordReader(sources.get(current));
+                }
+                while (records.next()) {
+                    Transaction transaction = TransactionRepository.toTransaction(records);
+                    if (transaction == null) {
+                        continue;
+                    }
+                    if (toSkip > 0) {
+                        toSkip--;
+                        continue;
+                    }
+                    return transaction;
+                }
+                records = null;
+                current++;
+            }
+            return null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (Reader source : sources) {
+                source.close();
+            }
+        }
+    }
+
+    /**
+     * Deschide registrul segmentat din directorul dat, creându-l dacă nu există.
+     * Închiderile de segment întrerupte sunt finalizate, iar tranzacțiile scrise în segmente dar lipsă din
+     * ordinea jurnalului (după o cădere între cele două scrieri) sunt adăugate la finalul ordinii.
+     *
+     * @param directory directorul segmentelor
+     * @throws IOException dacă directorul nu poate fi creat sau recuperarea eșuează
+     */
+    public SegmentedLedger(String directory) throws IOException {
+        this.directory = Paths.get(directory);
+        this.orderPath = this.directory.resolve(ORDER_FILE);
+        Files.createDirectories(this.directory);
+        recoverSealing();
+        reconcileOrder();
+    }
+
+    /**
+     * Adaugă tranzacții în segmentele deschise corespunzătoare lunii fiecărei tranzacții.
+     * Segmentele sunt sincronizate pe disc înaintea ordinii jurnalului, care este scrisă ultima.
+     *
+     * @param transactions tranzacțiile de adăugat
+     * @return poziția în jurnal de după tranzacțiile adăugate
+     * @throws IOException dacă apare o eroare de scriere
+     */
+    public synchronized long append(List<Transaction> transactions) throws IOException {
+        if (transactions.isEmpty()) {
+            return size;
+        }
+        Map<YearMonth, List<Transaction>> byMonth = new TreeMap<>();
+        ByteBuffer order = ByteBuffer.allocate(transactions.size() * Integer.BYTES);
+        for (Transaction transaction : transactions) {
+            YearMonth month = YearMonth.from(LocalDate.ofEpochDay(CsvCodec.epochDayOf(transaction.getDate())));
+            byMonth.computeIfAbsent(month, k -> new ArrayList<>()).add(transaction);
+            order.putInt(keyOf(month));
+        }
+        for (Map.Entry<YearMonth, List<Transaction>> entry : byMonth.entrySet()) {
+            Path path = directory.resolve(entry.getKey() + OPEN_SUFFIX);
+            try (FileOutputStream file = new FileOutputStream(path.toFile(), true)) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(file, StandardCharsets.UTF_8));
+                CsvCodec.RecordWriter records = new CsvCodec.RecordWriter(writer);
+                for (Transaction transaction : entry.getValue()) {
+                    records.text(transaction.getIban()).money(transaction.getAmountMinor())
+                            .date(CsvCodec.epochDayOf(transaction.getDate())).endRecord();
+                }
+                writer.flush();
+                file.getFD().sync();
+            }
+        }
+        try (FileOutputStream file = new FileOutputStream(orderPath.toFile(), true)) {
+            file.write(order.array());
+            file.getFD().sync();
+        }
+        size += transactions.size();
+        return size;
+    }
+
+    /**
+     * @return numărul de tranzacții din registru, adică poziția de final a jurnalului
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+    /**
+     * Încarcă tranzacțiile adăugate după poziția dată, în ordinea jurnalului.
+     *
+     * @param fromPosition numărul de tranzacții de sărit
+     * @return Lista de tranzacții
+     * @throws IOException dacă apare o eroare de citire
+     */
+    public List<Transaction> loadTransactions(long fromPosition) throws IOException {
+        try (Stream<Transaction> stream = stream(fromPosition)) {
+            return stream.collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Deschide un flux leneș peste tranzacțiile adăugate după poziția dată, în ordinea jurnalului.
+     * Fluxul cuprinde tranzacțiile existente la apel; segmentele sunt deschise imediat, deci o închidere
+     * de segment ulterioară nu afectează fluxul. Lunile sunt decomprimate doar dacă au tranzacții în intervalul cerut.
+     *
+     * @param fromPosition numărul de tranzacții de sărit
+     * @return Fluxul de tranzacții; trebuie închis după folosire
+     * @throws IOException dacă segmentele sau ordinea jurnalului nu pot fi deschise
+     */
+    public synchronized Stream<Transaction> stream(long fromPosition) throws IOException {
+        long from = Math.max(0, Math.min(fromPosition, size));
+        long remainingAtStart = size - from;
+        Map<Integer, Long> skipped = new HashMap<>();
+        Map<Integer, MonthCursor> cursors = new HashMap<>();
+        DataInputStream order = new DataInputStream(new BufferedInputStream(Files.newInputStream(orderPath)));
+        try {
+            for (long i = 0; i < from; i++) {
+                skipped.merge(order.readInt(), 1L, Long::sum);
+            }
+            for (YearMonth month : months(null)) {
+                List<Reader> sources = new ArrayList<>();
+                cursors.put(keyOf(month), new MonthCursor(sources, skipped.getOrDefault(keyOf(month), 0L)));
+                Path closed = directory.resolve(month + CLOSED_SUFFIX);
+                if (Files.exists(closed)) {
+                    sources.add(openClosed(closed));
+                }
+                Path open = directory.resolve(month + OPEN_SUFFIX);
+                if (Files.exists(open)) {
+                    sources.add(new InputStreamReader(Files.newInputStream(open), StandardCharsets.UTF_8));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            closeAll(order, cursors.values());
+            throw e;
+        }
+        Spliterator<Transaction> spliterator = new Spliterators.AbstractSpliterator<>(remainingAtStart,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.SIZED) {
+            private long remaining = remainingAtStart;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Transaction> action) {
+                if (remaining == 0) {
+                    return false;
+                }
+                try {
+                    int key = order.readInt();
+                    MonthCursor cursor = cursors.get(key);
+                    Transaction transaction = cursor == null ? null : cursor.next();
+                    if (transaction == null) {
+                        throw new IOException("Ledger segment " + monthOf(key) + " is shorter than the journal order");
+                    }
+                    remaining--;
+                    action.accept(transaction);
+                    return true;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                closeAll(order, cursors.values());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Închide toate segmentele deschise din lunile anterioare lunii date: le comprimă și le adaugă subsolul.
+     * Dacă luna are deja un segment închis, tranzacțiile noi sunt unite cu cele existente.
+     *
+     * @param month prima lună care rămâne deschisă
+     * @throws IOException dacă apare o eroare de citire sau scriere
+     */
+    public synchronized void closeSegmentsBefore(YearMonth month) throws IOException {
+        for (YearMonth segment : months(OPEN_SUFFIX)) {
+            if (segment.isBefore(month)) {
+                closeSegment(segment);
+            }
+        }
+    }
+
+    /**
+     * Returnează tranzacțiile care corespund filtrelor, parcurgând doar segmentele care le pot conține.
+     *
+     * @param iban IBAN-ul căutat sau null pentru toate conturile
+     * @param from data de început (inclusiv) sau null pentru fără limită
+     * @param to data de sfârșit (inclusiv) sau null pentru fără limită
+     * @return Lista de tranzacții, în ordinea lunilor
+     * @throws IOException dacă apare o eroare de citire
+     */
+    public synchronized List<Transaction> query(String iban, Date from, Date to) throws IOException {
+        int fromDay = from == null ? Integer.MIN_VALUE : CsvCodec.epochDayOf(from);
+        int toDay = to == null ? Integer.MAX_VALUE : CsvCodec.epochDayOf(to);
+        List<Transaction> result = new ArrayList<>();
+        for (YearMonth month : months(null)) {
+            int monthStart = (int) month.atDay(1).toEpochDay();
+            int monthEnd = (int) month.atEndOfMonth().toEpochDay();
+            if (monthEnd < fromDay || monthStart > toDay) {
+                continue;
+            }
+            Path closed = directory.resolve(month + CLOSED_SUFFIX);
+            if (Files.exists(closed) && readFooter(closed).mayContain(iban, fromDay, toDay)) {
+                try (Reader reader = openClosed(closed)) {
+                    collect(reader, iban, fromDay, toDay, result);
+                }
+            }
+            Path open = directory.resolve(month + OPEN_SUFFIX);
+            if (Files.exists(open)) {
+                try (Reader reader = new InputStreamReader(Files.newInputStream(open), StandardCharsets.UTF_8)) {
+                    collect(reader, iban, fromDay, toDay, result);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Împarte un fișier CSV plat de tranzacții pe segmente lunare și închide toate lunile dinaintea lunii curente.
+     *
+     * @param csvPath calea fișierului CSV sursă
+     * @throws IOException dacă apare o eroare de citire sau scriere
+     */
+    public void partition(String csvPath) throws IOException {
+        append(TransactionRepository.loadTransactions(csvPath));
+        closeSegmentsBefore(YearMonth.now());
+    }
+
+    private void collect(Reader reader, String iban, int fromDay, int toDay, List<Transaction> result) throws IOException {
+        CsvCodec.RecordReader records = new CsvCodec.RecordReader(reader);
+        while (records.next()) {
+            if (records.fieldCount() != 3 || (iban != null && !records.textEquals(0, iban))) {
+                continue;
+            }
+            int epochDay = records.epochDay(2);
+            if (epochDay != CsvCodec.INVALID_DAY && epochDay >= fromDay && epochDay <= toDay) {
+                result.add(TransactionRepository.toTransaction(records));
+            }
+        }
+    }
+
+    /**
+     * Închide segmentul deschis al unei luni. Segmentul deschis este întâi redenumit atomic într-un fișier
+     * {@code yyyy-MM.<generație>.sealing}, care nu mai primește scrieri; segmentul închis nou poartă generația
+     * în subsol, deci la recuperare se știe dacă fișierul {@code .sealing} a fost deja unit sau nu.
+     *
+     * @param month luna segmentului
+     * @throws IOException dacă apare o eroare de citire sau scriere
+     */
+    private void closeSegment(YearMonth month) throws IOException {
+        Path open = directory.resolve(month + OPEN_SUFFIX);
+        Path closed = directory.resolve(month + CLOSED_SUFFIX);
+        int generation = (Files.exists(closed) ? readFooter(closed).generation : 0) + 1;
+        Path sealing = directory.resolve(month + "." + generation + SEALING_SUFFIX);
+        Files.move(open, sealing, StandardCopyOption.ATOMIC_MOVE);
+        seal(month, sealing, generation);
+    }
+
+    /**
+     * Unește un segment în curs de închidere cu segmentul închis al lunii și șterge fișierul sursă.
+     *
+     * @param month luna segmentului
+     * @param sealing fișierul {@code .sealing} de unit
+     * @param generation generația segmentului închis rezultat
+     * @throws IOException dacă apare o eroare de citire sau scriere
+     */
+    private void seal(YearMonth month, Path sealing, int generation) throws IOException {
+        Path closed = directory.resolve(month + CLOSED_SUFFIX);
+        Path temporary = directory.resolve(month + CLOSED_SUFFIX + ".tmp");
+
+        int minDay = Integer.MAX_VALUE;
+        int maxDay = Integer.MIN_VALUE;
+        Map<String, Integer> counts = new TreeMap<>();
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (FileOutputStream file = new FileOutputStream(temporary.toFile())) {
+            DeflaterOutputStream deflated = new DeflaterOutputStream(file, deflater);
+            Writer writer = new BufferedWriter(new OutputStreamWriter(deflated, StandardCharsets.UTF_8));
+            CsvCodec.RecordWriter output = new CsvCodec.RecordWriter(writer);
+            List<Reader> sources = new ArrayList<>();
+            if (Files.exists(closed)) {
+                sources.add(openClosed(closed));
+            }
+            sources.add(new InputStreamReader(Files.newInputStream(sealing), StandardCharsets.UTF_8));
+            for (Reader source : sources) {
+                try (Reader reader = source) {
+                    CsvCodec.RecordReader records = new CsvCodec.RecordReader(reader);
+                    while (records.next()) {
+                        Transaction transaction = TransactionRepository.toTransaction(records);
+                        if (transaction == null) {
+                            continue;
+                        }
+                        int epochDay = records.epochDay(2);
+                        minDay = Math.min(minDay, epochDay);
+                        maxDay = Math.max(maxDay, epochDay);
+                        counts.merge(transaction.getIban(), 1, Integer::sum);
+                        output.text(transaction.getIban()).money(transaction.getAmountMinor()).date(epochDay).endRecord();
+                    }
+                }
+            }
+            writer.flush();
+            deflated.finish();
+
+            ByteArrayOutputStream footerBytes = new ByteArrayOutputStream();
+            DataOutputStream footer = new DataOutputStream(footerBytes);
+            footer.writeInt(minDay);
+            footer.writeInt(maxDay);
+            footer.writeInt(generation);
+            footer.writeInt(counts.size());
+            for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+                footer.writeUTF(entry.getKey());
+                footer.writeInt(entry.getValue());
+            }
+            footer.writeInt(footerBytes.size() + Integer.BYTES * 2);
+            footer.writeInt(FOOTER_MAGIC);
+            footerBytes.writeTo(file);
+            file.getFD().sync();
+        } finally {
+            deflater.end();
+        }
+        Files.move(temporary, closed, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.delete(sealing);
+    }
+
+    /**
+     * Finalizează închiderile de segment întrerupte: un fișier {@code .sealing} a cărui generație este deja
+     * în segmentul închis este doar șters, altfel este unit din nou cu segmentul închis.
+     *
+     * @throws IOException dacă apare o eroare de citire sau scriere
+     */
+    private void recoverSealing() throws IOException {
+        List<Path> pending = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SEALING_SUFFIX)) {
+            files.forEach(pending::add);
+        }
+        Collections.sort(pending);
+        for (Path sealing : pending) {
+            String name = sealing.getFileName().toString();
+            String[] parts = name.substring(0, name.length() - SEALING_SUFFIX.length()).split("\\.");
+            YearMonth month;
+            int generation;
+            try {
+                month = YearMonth.parse(parts[0]);
+                generation = Integer.parseInt(parts[1]);
+            } catch (DateTimeParseException | NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                System.err.println("Ignoring unknown ledger file: " + name);
+                continue;
+            }
+            Path closed = directory.resolve(month + CLOSED_SUFFIX);
+            if (Files.exists(closed) && readFooter(closed).generation >= generation) {
+                Files.delete(sealing);
+            } else {
+                seal(month, sealing, generation);
+            }
+        }
+    }
+
+    /**
+     * Citește ordinea jurnalului și o completează cu tranzacțiile din segmente care nu apar în ea.
+     *
+     * @throws IOException dacă apare o eroare de citire sau scriere
+     */
+    private void reconcileOrder() throws IOException {
+        Map<Integer, Long> logged = new HashMap<>();
+        long entries = 0;
+        if (!Files.exists(orderPath)) {
+            Files.createFile(orderPath);
+        } else {
+            long length = Files.size(orderPath);
+            entries = length / Integer.BYTES;
+            if (length % Integer.BYTES != 0) {
+                try (FileChannel channel = FileChannel.open(orderPath, StandardOpenOption.WRITE)) {
+                    channel.truncate(entries * Integer.BYTES);
+                }
+            }
+            try (DataInputStream order = new DataInputStream(new BufferedInputStream(Files.newInputStream(orderPath)))) {
+                for (long i = 0; i < entries; i++) {
+                    logged.merge(order.readInt(), 1L, Long::sum);
+                }
+            }
+        }
+        ByteArrayOutputStream missing = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(missing);
+        for (YearMonth month : months(null)) {
+            long rows = countRows(month);
+            long surplus = rows - logged.getOrDefault(keyOf(month), 0L);
+            if (surplus < 0) {
+                System.out.println("Ledger segment " + month + " is missing " + (-surplus) + " journaled transactions.");
+            }
+            for (long i = 0; i < surplus; i++) {
+                output.writeInt(keyOf(month));
+            }
+        }
+        if (missing.size() > 0) {
+            try (FileOutputStream file = new FileOutputStream(orderPath.toFile(), true)) {
+                missing.writeTo(file);
+                file.getFD().sync();
+            }
+        }
+        size = entries + missing.size() / Integer.BYTES;
+    }
+
+    private long countRows(YearMonth month) throws IOException {
+        long rows = 0;
+        Path closed = directory.resolve(month + CLOSED_SUFFIX);
+        if (Files.exists(closed)) {
+            rows += readFooter(closed).total();
+        }
+        Path open = directory.resolve(month + OPEN_SUFFIX);
+        if (Files.exists(open)) {
+            try (Reader reader = new InputStreamReader(Files.newInputStream(open), StandardCharsets.UTF_8)) {
+                CsvCodec.RecordReader records = new CsvCodec.RecordReader(reader);
+                while (records.next()) {
+                    if (TransactionRepository.toTransaction(records) != null) {
+                        rows++;
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
+    private Footer readFooter(Path closed) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(closed.toFile(), "r")) {
+            long length = file.length();
+            file.seek(length - Integer.BYTES * 2);
+            int footerLength = file.readInt();
+            if (file.readInt() != FOOTER_MAGIC) {
+                throw new IOException("Invalid segment footer: " + closed);
+            }
+            file.seek(length - footerLength);
+            int minDay = file.readInt();
+            int maxDay = file.readInt();
+            int generation = file.readInt();
+            int ibanCount = file.readInt();
+            Map<String, Integer> counts = new HashMap<>();
+            for (int i = 0; i < ibanCount; i++) {
+                counts.put(file.readUTF(), file.readInt());
+            }
+            return new Footer(minDay, maxDay, generation, counts);
+        }
+    }
+
+    private Reader openClosed(Path closed) throws IOException {
+        // InflaterInputStream se oprește la finalul fluxului comprimat, deci subsolul nu este citit ca date
+        return new InputStreamReader(new InflaterInputStream(
+                new BufferedInputStream(Files.newInputStream(closed))), StandardCharsets.UTF_8);
+    }
+
+    private static void closeAll(Closeable order, Collection<MonthCursor> cursors) throws IOException {
+        IOException failure = null;
+        List<Closeable> all = new ArrayList<>(cursors);
+        all.add(order);
+        for (Closeable closeable : all) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static int keyOf(YearMonth month) {
+        return month.getYear() * 12 + month.getMonthValue() - 1;
+    }
+
+    private static YearMonth monthOf(int key) {
+        return YearMonth.of(Math.floorDiv(key, 12), Math.floorMod(key, 12) + 1);
+    }
+
+    private SortedSet<YearMonth> months(String suffix) throws IOException {
+        SortedSet<YearMonth> months = new TreeSet<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                for (String candidate : new String[]{OPEN_SUFFIX, CLOSED_SUFFIX}) {
+                    if ((suffix == null || suffix.equals(candidate)) && name.endsWith(candidate)) {
+                        try {
+                            months.add(YearMonth.parse(name.substring(0, name.length() - candidate.length())));
+                        } catch (DateTimeParseException e) {
+                            System.err.println("Ignoring unknown ledger file: " + name);
+                        }
+                    }
+                }
+            }
+        }
+        return months;
+    }
+
+    /**
+     * Împărțire într-un singur pas a fișierului CSV implicit în segmente lunare.
+     * Folosire: {@code SegmentedLedger import} sau {@code SegmentedLedger close}.
+     *
+     * @param args argumentele din linia de comandă
+     * @throws IOException dacă apare o eroare de citire sau scriere
+     */
+    public static void main(String[] args) throws IOException {
+        SegmentedLedger ledger = new SegmentedLedger(DIRECTORY);
+        if (args.length >= 1 && args[0].equals("import")) {
+            ledger.partition(TransactionRepository.FILE_PATH);
+        } else if (args.length >= 1 && args[0].equals("close")) {
+            ledger.closeSegmentsBefore(YearMonth.now());
+        } else {
+            System.out.println("Usage: SegmentedLedger import | close");
+        }
+    }
+}
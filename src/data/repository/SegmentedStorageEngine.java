@@ -0,0 +1,169 @@
+package data.repository;
+
+import data.models.Account;
+import data.models.Transaction;
+import data.models.User;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.YearMonth;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Motor de stocare care păstrează tranzacțiile în {@link SegmentedLedger}, pe segmente lunare.
+ * Utilizatorii și conturile rămân în fișierele CSV din același director și sunt gestionate de {@link CsvStorageEngine}.
+ * La prima deschidere, dacă registrul segmentat nu există, el este creat din fișierul CSV de tranzacții; la fiecare
+ * deschidere sunt închise segmentele lunilor anterioare lunii curente.
+ * Interogările pe cont și pe interval de date sar peste segmentele închise care nu pot conține rezultate și
+ * întorc tranzacțiile în ordinea lunilor. Poziția în jurnal este numărul de tranzacții adăugate.
+ */
+public class SegmentedStorageEngine implements StorageEngine {
+    private static final String LEDGER_DIRECTORY = "ledger";
+    private static final String SNAPSHOT_FILE = "transactions_segments.snapshot";
+
+    private final CsvStorageEngine files;
+    private final String usersPath;
+    private final String accountsPath;
+    private final String transactionsPath;
+    private final String ledgerPath;
+    private final String snapshotPath;
+    private SegmentedLedger ledger;
+
+    /**
+     * Creează motorul pentru fișierele din directorul dat.
+     *
+     * @param directory directorul fișierelor de date
+     */
+    public SegmentedStorageEngine(String directory) {
+        Path root = Paths.get(directory);
+        this.files = new CsvStorageEngine(directory);
+        this.usersPath = root.resolve(CsvStorageEngine.USERS_FILE).toString();
+        this.accountsPath = root.resolve(CsvStorageEngine.ACCOUNTS_FILE).toString();
+        this.transactionsPath = root.resolve(CsvStorageEngine.TRANSACTIONS_FILE).toString();
+        this.ledgerPath = root.resolve(LEDGER_DIRECTORY).toString();
+        this.snapshotPath = root.resolve(SNAPSHOT_FILE).toString();
+    }
+
+    @Override
+    public List<User> loadUsers() throws IOException {
+        return files.loadUsers();
+    }
+
+    @Override
+    public void saveUsers(List<User> users) throws IOException {
+        files.saveUsers(users);
+    }
+
+    @Override
+    public List<Account> loadAccounts() throws IOException {
+        return files.loadAccounts();
+    }
+
+    @Override
+    public void saveAccounts(List<Account> accounts) throws IOException {
+        files.saveAccounts(accounts);
+    }
+
+    @Override
+    public void applyAccountChanges(List<Account> upserted, List<String> deletedIbans) throws IOException {
+        files.applyAccountChanges(upserted, deletedIbans);
+    }
+
+    @Override
+    public List<Transaction> loadTransactions() throws IOException {
+        return ledger().loadTransactions(0);
+    }
+
+    @Override
+    public List<Transaction> loadTransactionsByIban(String iban) throws IOException {
+        return ledger().query(iban, null, null);
+    }
+
+    @Override
+    public List<Transaction> loadTransactionsBetween(String iban, Date from, Date to) throws IOException {
+        return ledger().query(iban, from, to);
+    }
+
+    @Override
+    public Stream<Transaction> streamTransactions() throws IOException {
+        return ledger().stream(0);
+    }
+
+    @Override
+    public long appendTransactions(List<Transaction> transactions) throws IOException {
+        return ledger().append(transactions);
+    }
+
+    @Override
+    public long journalPosition() throws IOException {
+        return ledger().size();
+    }
+
+    @Override
+    public List<Transaction> loadTransactionsSince(long position) throws IOException {
+        return ledger().loadTransactions(position);
+    }
+
+    @Override
+    public SnapshotRepository.Snapshot loadSnapshot() {
+        return SnapshotRepository.load(snapshotPath, usersPath, accountsPath);
+    }
+
+    @Override
+    public void saveSnapshot(SnapshotRepository.Snapshot snapshot) throws IOException {
+        SnapshotRepository.save(snapshotPath, usersPath, accountsPath, snapshot);
+    }
+
+    /**
+     * Renunță la registrul deschis; segmentele nu țin fișiere deschise între operații.
+     */
+    @Override
+    public synchronized void close() {
+        ledger = null;
+    }
+
+    /**
+     * Returnează registrul segmentat, deschizându-l (și importând fișierul CSV, dacă e nevoie) la prima utilizare.
+     *
+     * @return registrul segmentat de tranzacții
+     * @throws IOException dacă registrul nu poate fi deschis sau creat
+     */
+    private synchronized SegmentedLedger ledger() throws IOException {
+        if (ledger == null) {
+            Path directory = Paths.get(ledgerPath);
+            if (!Files.exists(directory) && Files.exists(Paths.get(transactionsPath))) {
+                importFromCsv(directory);
+            }
+            SegmentedLedger opened = new SegmentedLedger(ledgerPath);
+            opened.closeSegmentsBefore(YearMonth.now());
+            ledger = opened;
+        }
+        return ledger;
+    }
+
+    /**
+     * Creează registrul segmentat din fișierul CSV de tranzacții într-un director temporar, mutat apoi atomic
+     * în locul final, astfel încât un import întrerupt nu lasă un registru parțial.
+     *
+     * @param directory directorul final al registrului
+     * @throws IOException dacă apare o eroare de citire sau scriere
+     */
+    private void importFromCsv(Path directory) throws IOException {
+        Path temporary = directory.resolveSibling(directory.getFileName() + ".tmp");
+        if (Files.exists(temporary)) {
+            try (Stream<Path> leftovers = Files.list(temporary)) {
+                for (Path leftover : (Iterable<Path>) leftovers::iterator) {
+                    Files.delete(leftover);
+                }
+            }
+            Files.delete(temporary);
+        }
+        new SegmentedLedger(temporary.toString()).partition(transactionsPath);
+        Files.move(temporary, directory, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,294 @@
+package data.repository;
+
+import data.models.Account;
+import data.models.IbanDictionary;
+import data.models.Money;
+import data.models.Transaction;
+import data.models.User;
+import domain.exceptions.UserNameException;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Repository pentru instantanee binare (snapshot) ale stării aplicației.
+ * Un instantaneu conține utilizatorii, conturile și tranzacțiile, împreună cu poziția din jurnalul
+ * de tranzacții până la care este complet. La pornire se încarcă instantaneul și se citesc
+ * doar tranzacțiile adăugate în jurnal după acea poziție.
+ */
+public class SnapshotRepository {
+    private static final String FILE_PATH = "src/resources/snapshot.bin";
+    private static final int MAGIC = 0x45425350;
+    private static final int VERSION = 3;
+
+    /**
+     * Conținutul unui instantaneu.
+     */
+    public static class Snapshot {
+        private final long journalPosition;
+        private final List<User> users;
+        private final List<Account> accounts;
+        private final List<Transaction> transactions;
+        private final boolean usersFileUnchanged;
+        private final boolean accountsFileUnchanged;
+
+        /**
+         * Creează un instantaneu.
+         *
+         * @param journalPosition poziția din jurnalul de tranzacții acoperită de instantaneu
+         * @param users utilizatorii
+         * @param accounts conturile
+         * @param transactions tranzacțiile până la poziția din jurnal
+         */
+        public Snapshot(long journalPosition, List<User> users, List<Account> accounts, List<Transaction> transactions) {
+            this(journalPosition, users, accounts, transactions, true, true);
+        }
+
+        private Snapshot(long journalPosition, List<User> users, List<Account> accounts,
+                         List<Transaction> transactions, boolean usersFileUnchanged, boolean accountsFileUnchanged) {
+            this.journalPosition = journalPosition;
+            this.users = users;
+            this.accounts = accounts;
+            this.transactions = transactions;
+            this.usersFileUnchanged = usersFileUnchanged;
+            this.accountsFileUnchanged = accountsFileUnchanged;
+        }
+
+        /**
+         * @return poziția din fișierul de tranzacții până la care instantaneul este complet
+         */
+        public long getJournalPosition() {
+            return journalPosition;
+        }
+
+        /**
+         * @return utilizatorii din instantaneu
+         */
+        public List<User> getUsers() {
+            return users;
+        }
+
+        /**
+         * @return conturile din instantaneu
+         */
+        public List<Account> getAccounts() {
+            return accounts;
+        }
+
+        /**
+         * @return tranzacțiile din instantaneu
+         */
+        public List<Transaction> getTransactions() {
+            return transactions;
+        }
+
+        /**
+         * @return true dacă fișierul de utilizatori nu s-a modificat de la crearea instantaneului
+         */
+        public boolean isUsersFileUnchanged() {
+            return usersFileUnchanged;
+        }
+
+        /**
+         * @return true dacă fișierul de conturi nu s-a modificat de la crearea instantaneului
+         */
+        public boolean isAccountsFileUnchanged() {
+            return accountsFileUnchanged;
+        }
+    }
+
+    /**
+     * Mărimea și data ultimei modificări a unui fișier, folosite pentru a detecta modificări externe.
+     */
+    private static class FileStamp {
+        private final long size;
+        private final long lastModified;
+
+        private FileStamp(long size, long lastModified) {
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        private static FileStamp of(String... filePaths) {
+            long size = 0;
+            long lastModified = 0;
+            for (String filePath : filePaths) {
+                File file = new File(filePath);
+                size += file.length();
+                lastModified = Math.max(lastModified, file.lastModified());
+            }
+            return new FileStamp(size, lastModified);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            FileStamp stamp = (FileStamp) o;
+            return size == stamp.size && lastModified == stamp.lastModified;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(size) * 31 + Long.hashCode(lastModified);
+        }
+    }
+
+    /**
+     * Încarcă ultimul instantaneu salvat.
+     *
+     * @return instantaneul sau null dacă nu există ori nu poate fi citit
+     */
+    public static Snapshot load() {
+        return load(FILE_PATH, UserRepository.FILE_PATH, AccountRepository.FILE_PATH);
+    }
+
+    /**
+     * Încarcă un instantaneu de la calea dată și verifică dacă fișierele de utilizatori și conturi
+     * s-au modificat de la salvarea lui.
+     *
+     * @param filePath calea instantaneului
+     * @param usersPath calea fișierului de utilizatori
+     * @param accountsPath calea fișierului de conturi
+     * @return instantaneul sau null dacă nu există ori nu poate fi citit
+     */
+    public static Snapshot load(String filePath, String usersPath, String accountsPath) {
+        Path path = Paths.get(filePath);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                return null;
+            }
+            long journalPosition = input.readLong();
+            FileStamp usersStamp = new FileStamp(input.readLong(), input.readLong());
+            FileStamp accountsStamp = new FileStamp(input.readLong(), input.readLong());
+
+            int userCount = input.readInt();
+            List<User> users = new ArrayList<>(userCount);
+            for (int i = 0; i < userCount; i++) {
+                users.add(new User(input.readUTF(), input.readUTF(), input.readUTF()));
+            }
+
+            int accountCount = input.readInt();
+            List<Account> accounts = new ArrayList<>(accountCount);
+            for (int i = 0; i < accountCount; i++) {
+                String userId = input.readUTF();
+                int ibanId = IbanDictionary.idOf(input.readUTF());
+                accounts.add(new Account(userId, ibanId, input.readUTF(), Money.ofMinor(input.readLong()),
+                        input.readLong()));
+            }
+
+            int ibanCount = input.readInt();
+            String[] ibans = new String[ibanCount];
+            for (int i = 0; i < ibanCount; i++) {
+                ibans[i] = input.readUTF();
+            }
+            int transactionCount = input.readInt();
+            List<Transaction> transactions = new ArrayList<>(transactionCount);
+            for (int i = 0; i < transactionCount; i++) {
+                String iban = ibans[input.readInt()];
+                Money amount = Money.ofMinor(input.readLong());
+                transactions.add(new Transaction(iban, amount, CsvCodec.toDate(input.readInt())));
+            }
+            return new Snapshot(journalPosition, users, accounts, transactions,
+                    usersStamp.equals(FileStamp.of(usersPath)), accountsStamp.equals(accountsStamp(accountsPath)));
+        } catch (IOException | UserNameException | ArrayIndexOutOfBoundsException e) {
+            System.err.println("Ignoring unreadable snapshot: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Salvează instantaneul, înlocuind atomic instantaneul anterior.
+     *
+     * @param snapshot instantaneul de salvat
+     * @throws IOException dacă apare o eroare de scriere
+     */
+    public static void save(Snapshot snapshot) throws IOException {
+        save(FILE_PATH, UserRepository.FILE_PATH, AccountRepository.FILE_PATH, snapshot);
+    }
+
+    /**
+     * Salvează instantaneul la calea dată, împreună cu mărimea și data modificării fișierelor
+     * de utilizatori și conturi din momentul salvării.
+     *
+     * @param filePath calea instantaneului
+     * @param usersPath calea fișierului de utilizatori
+     * @param accountsPath calea fișierului de conturi
+     * @param snapshot instantaneul de salvat
+     * @throws IOException dacă apare o eroare de scriere
+     */
+    public static void save(String filePath, String usersPath, String accountsPath, Snapshot snapshot)
+            throws IOException {
+        Path path = Paths.get(filePath);
+        Path temporary = Paths.get(filePath + ".tmp");
+        FileStamp usersStamp = FileStamp.of(usersPath);
+        FileStamp accountsStamp = accountsStamp(accountsPath);
+        try (FileOutputStream file = new FileOutputStream(temporary.toFile());
+             DataOutputStream output = new DataOutputStream(new BufferedOutputStream(file))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeLong(snapshot.journalPosition);
+            output.writeLong(usersStamp.size);
+            output.writeLong(usersStamp.lastModified);
+            output.writeLong(accountsStamp.size);
+            output.writeLong(accountsStamp.lastModified);
+
+            output.writeInt(snapshot.users.size());
+            for (User user : snapshot.users) {
+                output.writeUTF(user.getId());
+                output.writeUTF(user.getFirstName());
+                output.writeUTF(user.getLastName());
+            }
+
+            output.writeInt(snapshot.accounts.size());
+            for (Account account : snapshot.accounts) {
+                output.writeUTF(account.getUserId());
+                output.writeUTF(account.getIban());
+                output.writeUTF(account.getType());
+                output.writeLong(account.getBalanceMinor());
+                output.writeLong(account.getPostedMinor());
+            }
+
+            Map<String, Integer> ibanIds = new HashMap<>();
+            List<String> ibans = new ArrayList<>();
+            for (Transaction transaction : snapshot.transactions) {
+                if (ibanIds.putIfAbsent(transaction.getIban(), ibans.size()) == null) {
+                    ibans.add(transaction.getIban());
+                }
+            }
+            output.writeInt(ibans.size());
+            for (String iban : ibans) {
+                output.writeUTF(iban);
+            }
+            output.writeInt(snapshot.transactions.size());
+            for (Transaction transaction : snapshot.transactions) {
+                output.writeInt(ibanIds.get(transaction.getIban()));
+                output.writeLong(transaction.getAmountMinor());
+                output.writeInt(CsvCodec.epochDayOf(transaction.getDate()));
+            }
+            output.flush();
+            file.getFD().sync();
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Ștampila fișierului de conturi, incluzând jurnalul său de modificări.
+     *
+     * @param accountsPath calea fișierului de conturi
+     * @return ștampila combinată
+     */
+    private static FileStamp accountsStamp(String accountsPath) {
+        return FileStamp.of(accountsPath, AccountRepository.changeLogPath(accountsPath));
+    }
+}
@@ -0,0 +1,163 @@
+package data.repository;
+
+import data.models.Account;
+import data.models.Transaction;
+import data.models.User;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Motor de stocare pentru datele aplicației (utilizatori, conturi, tranzacții și instantanee).
+ * Serviciile lucrează doar prin această interfață, iar implementarea concretă este aleasă prin
+ * configurare în {@link StorageEngines}.
+ * Tranzacțiile sunt tratate ca un jurnal append-only: fiecare motor expune o poziție în jurnal,
+ * folosită de instantanee pentru a reciti doar tranzacțiile adăugate ulterior.
+ */
+public interface StorageEngine extends Closeable {
+
+    /**
+     * Încarcă toți utilizatorii.
+     *
+     * @return Lista de utilizatori
+     * @throws IOException dacă apare o eroare de citire
+     */
+    List<User> loadUsers() throws IOException;
+
+    /**
+     * Înlocuiește toți utilizatorii cu lista dată.
+     *
+     * @param users Lista de utilizatori de salvat
+     * @throws IOException dacă apare o eroare de scriere
+     */
+    void saveUsers(List<User> users) throws IOException;
+
+    /**
+     * Încarcă toate conturile.
+     *
+     * @return Lista de conturi
+     * @throws IOException dacă apare o eroare de citire
+     */
+    List<Account> loadAccounts() throws IOException;
+
+    /**
+     * Înlocuiește toate conturile cu lista dată.
+     *
+     * @param accounts Lista de conturi de salvat
+     * @throws IOException dacă apare o eroare de scriere
+     */
+    void saveAccounts(List<Account> accounts) throws IOException;
+
+    /**
+     * Persistă doar conturile modificate, fără a rescrie toate conturile.
+     * Conturile sunt identificate prin IBAN.
+     *
+     * @param upserted conturile inserate sau actualizate
+     * @param deletedIbans IBAN-urile conturilor șterse
+     * @throws IOException dacă apare o eroare de scriere
+     */
+    void applyAccountChanges(List<Account> upserted, List<String> deletedIbans) throws IOException;
+
+    /**
+     * Încarcă toate tranzacțiile, în ordinea din jurnal.
+     *
+     * @return Lista de tranzacții
+     * @throws IOException dacă apare o eroare de citire
+     */
+    List<Transaction> loadTransactions() throws IOException;
+
+    /**
+     * Încarcă tranzacțiile unui cont.
+     *
+     * @param iban IBAN-ul contului
+     * @return Lista de tranzacții ale contului, în ordinea din jurnal
+     * @throws IOException dacă apare o eroare de citire
+     */
+    List<Transaction> loadTransactionsByIban(String iban) throws IOException;
+
+    /**
+     * Încarcă tranzacțiile unui cont dintr-un interval de zile.
+     * Implicit filtrează rezultatul {@link #loadTransactionsByIban(String)}; motoarele care își pot restrânge
+     * citirea după dată (de exemplu cel segmentat pe luni) o suprascriu.
+     *
+     * @param iban IBAN-ul contului
+     * @param from data de început (inclusiv)
+     * @param to data de sfârșit (inclusiv)
+     * @return Lista de tranzacții ale contului din interval
+     * @throws IOException dacă apare o eroare de citire
+     */
+    default List<Transaction> loadTransactionsBetween(String iban, Date from, Date to) throws IOException {
+        int fromDay = CsvCodec.epochDayOf(from);
+        int toDay = CsvCodec.epochDayOf(to);
+        return loadTransactionsByIban(iban).stream()
+                .filter(transaction -> {
+                    int day = CsvCodec.epochDayOf(transaction.getDate());
+                    return day >= fromDay && day <= toDay;
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returnează toate tranzacțiile ca flux, fără a le ține pe toate în memorie.
+     * Fluxul trebuie închis după utilizare.
+     *
+     * @return Fluxul de tranzacții
+     * @throws IOException dacă sursa nu poate fi deschisă
+     */
+    Stream<Transaction> streamTransactions() throws IOException;
+
+    /**
+     * Adaugă tranzacțiile la finalul jurnalului; la revenire, tranzacțiile sunt persistate.
+     *
+     * @param transactions tranzacțiile de adăugat
+     * @return poziția din jurnal de după tranzacțiile adăugate, în aceeași unitate ca {@link #journalPosition()}
+     * @throws IOException dacă apare o eroare de scriere
+     */
+    long appendTransactions(List<Transaction> transactions) throws IOException;
+
+    /**
+     * Returnează poziția curentă de final a jurnalului de tranzacții.
+     * Unitatea poziției depinde de motor (octeți sau număr de înregistrări).
+     *
+     * @return poziția de final a jurnalului
+     * @throws IOException dacă poziția nu poate fi citită
+     */
+    long journalPosition() throws IOException;
+
+    /**
+     * Încarcă tranzacțiile adăugate după poziția dată din jurnal.
+     *
+     * @param position o poziție returnată anterior de {@link #journalPosition()}
+     * @return Lista de tranzacții de după poziția dată
+     * @throws IOException dacă apare o eroare de citire
+     */
+    List<Transaction> loadTransactionsSince(long position) throws IOException;
+
+    /**
+     * Încarcă ultimul instantaneu salvat.
+     *
+     * @return instantaneul sau null dacă nu există ori motorul nu păstrează instantanee
+     */
+    SnapshotRepository.Snapshot loadSnapshot();
+
+    /**
+     * Salvează un instantaneu al stării aplicației.
+     *
+     * @param snapshot instantaneul de salvat
+     * @throws IOException dacă apare o eroare de scriere
+     */
+    void saveSnapshot(SnapshotRepository.Snapshot snapshot) throws IOException;
+
+    /**
+     * Eliberează fișierele deschise de motor. Motorul poate fi folosit în continuare;
+     * resursele sunt redeschise la următorul acces.
+     *
+     * @throws IOException dacă apare o eroare la închidere
+     */
+    @Override
+    void close() throws IOException;
+}
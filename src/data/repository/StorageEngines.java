@@ -0,0 +1,64 @@
+package data.repository;
+
+import java.io.IOException;
+
+/**
+ * Alege motorul de stocare pe baza configurării.
+ * Tipul motorului este citit din proprietatea de sistem {@code ebanking.storage}
+ * ({@code csv}, {@code memory}, {@code binary} sau {@code segmented}; implicit {@code csv}), iar directorul de date
+ * din {@code ebanking.dataDir} (implicit {@code src/resources}).
+ */
+public class StorageEngines {
+    public static final String CSV = "csv";
+    public static final String MEMORY = "memory";
+    public static final String BINARY = "binary";
+    public static final String SEGMENTED = "segmented";
+    private static final String DEFAULT_DIRECTORY = "src/resources";
+
+    private static StorageEngine defaultEngine;
+
+    private StorageEngines() {
+    }
+
+    /**
+     * Returnează motorul configurat, partajat de toate serviciile, creându-l la primul apel.
+     *
+     * @return motorul de stocare implicit
+     */
+    public static synchronized StorageEngine getDefault() {
+        if (defaultEngine == null) {
+            defaultEngine = create(System.getProperty("ebanking.storage", CSV),
+                    System.getProperty("ebanking.dataDir", DEFAULT_DIRECTORY));
+        }
+        return defaultEngine;
+    }
+
+    /**
+     * Creează un motor de stocare de tipul dat.
+     * Motorul în memorie este populat cu datele CSV din director, dacă acestea pot fi citite.
+     *
+     * @param type tipul motorului: {@code csv}, {@code memory}, {@code binary} sau {@code segmented}
+     * @param directory directorul fișierelor de date
+     * @return motorul creat
+     * @throws IllegalArgumentException dacă tipul nu este cunoscut
+     */
+    public static StorageEngine create(String type, String directory) {
+        switch (type) {
+            case CSV:
+                return new CsvStorageEngine(directory);
+            case BINARY:
+                return new BinaryStorageEngine(directory);
+            case SEGMENTED:
+                return new SegmentedStorageEngine(directory);
+            case MEMORY:
+                try {
+                    return new InMemoryStorageEngine(new CsvStorageEngine(directory));
+                } catch (IOException e) {
+                    System.out.println("Error loading data into memory: " + e.getMessage());
+                    return new InMemoryStorageEngine();
+                }
+            default:
+                throw new IllegalArgumentException("Unknown storage engine: " + type);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package data.repository;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Index secundar persistent care asociază fiecărui IBAN pozițiile (offset-urile în octeți)
+ * ale liniilor sale din fișierul CSV de tranzacții.
+ * Indexul este păstrat ca un fișier append-only de intrări (IBAN, început de linie, sfârșit de linie, CRC32 al liniei)
+ * și este actualizat incremental: la fiecare apel se indexează doar liniile adăugate de la ultima actualizare.
+ * Prima și ultima linie indexată servesc drept amprentă a fișierului de date: dacă oricare dintre ele nu mai
+ * corespunde conținutului de pe disc (fișierul a fost rescris sau înlocuit), indexul este reconstruit.
+ */
+public final class TransactionIndex {
+    private static final int MAGIC = 0x45424932;
+
+    private final Path dataPath;
+    private final Path indexPath;
+    private final Map<String, Positions> positionsByIban = new HashMap<>();
+    private long coveredLength;
+    private Entry first;
+    private Entry last;
+
+    /**
+     * Intrare de index folosită ca amprentă: poziția unei linii și suma de control a conținutului ei.
+     */
+    private record Entry(long start, long end, long crc) {
+    }
+
+    /**
+     * Lista crescătoare de offset-uri pentru un singur IBAN.
+     */
+    private static class Positions {
+        private long[] offsets = new long[8];
+        private int size;
+
+        private void add(long offset) {
+            if (size == offsets.length) {
+                offsets = Arrays.copyOf(offsets, size * 2);
+            }
+            offsets[size++] = offset;
+        }
+    }
+
+    /**
+     * Deschide indexul pentru fișierul de date specificat, încărcând intrările deja persistate.
+     * Dacă fișierul de index lipsește sau este corupt, acesta este reconstruit.
+     *
+     * @param dataPath calea fișierului CSV de tranzacții
+     * @param indexPath calea fișierului de index
+     * @throws IOException dacă apare o eroare de citire sau scriere
+     */
+    public TransactionIndex(String dataPath, String indexPath) throws IOException {
+        this.dataPath = Paths.get(dataPath);
+        this.indexPath = Paths.get(indexPath);
+        if (Files.exists(this.indexPath)) {
+            boolean valid;
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(this.indexPath)))) {
+                valid = input.available() == 0 || input.readInt() == MAGIC;
+                while (valid && input.available() > 0) {
+                    String iban = input.readUTF();
+                    long start = input.readLong();
+                    long end = input.readLong();
+                    long crc = input.readLong();
+                    positionsByIban.computeIfAbsent(iban, k -> new Positions()).add(start);
+                    record(new Entry(start, end, crc));
+                    coveredLength = end;
+                }
+            } catch (EOFException | UTFDataFormatException e) {
+                valid = false;
+            }
+            if (!valid) {
+                reset();
+            }
+        }
+        catchUp();
+    }
+
+    /**
+     * Indexează liniile complete adăugate în fișierul de date după ultima actualizare.
+     * Dacă fișierul de date este mai scurt decât partea deja indexată sau amprenta lui nu mai corespunde,
+     * indexul este reconstruit.
+     *
+     * @throws IOException dacă apare o eroare de citire sau scriere
+     */
+    public synchronized void catchUp() throws IOException {
+        if (!Files.exists(dataPath)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(dataPath, StandardOpenOption.READ)) {
+            long dataLength = channel.size();
+            if (dataLength < coveredLength || !matches(channel, first) || !matches(channel, last)) {
+                reset();
+            }
+            if (dataLength == coveredLength) {
+                return;
+            }
+            index(channel);
+        }
+    }
+
+    /**
+     * Indexează liniile complete de după partea deja acoperită și adaugă intrările în fișierul de index.
+     *
+     * @param channel canalul deschis al fișierului de date
+     * @throws IOException dacă apare o eroare de citire sau scriere
+     */
+    private void index(FileChannel channel) throws IOException {
+        boolean newFile = !Files.exists(indexPath) || Files.size(indexPath) == 0;
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(indexPath.toFile(), true)))) {
+            if (newFile) {
+                output.writeInt(MAGIC);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+            long position = coveredLength;
+            long lineStart = coveredLength;
+            CRC32 crc = new CRC32();
+            while (channel.read(buffer, position) > 0) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    byte b = buffer.get();
+                    position++;
+                    crc.update(b);
+                    if (b != '\n') {
+                        line.write(b);
+                        continue;
+                    }
+                    String iban = ibanOf(line.toString(StandardCharsets.UTF_8));
+                    if (iban != null) {
+                        positionsByIban.computeIfAbsent(iban, k -> new Positions()).add(lineStart);
+                        record(new Entry(lineStart, position, crc.getValue()));
+                        output.writeUTF(iban);
+                        output.writeLong(lineStart);
+                        output.writeLong(position);
+                        output.writeLong(crc.getValue());
+                    }
+                    crc.reset();
+                    line.reset();
+                    lineStart = position;
+                    coveredLength = position;
+                }
+                buffer.clear();
+            }
+        }
+    }
+
+    /**
+     * Returnează offset-urile liniilor care aparțin unui IBAN, în ordinea din fișier.
+     *
+     * @param iban IBAN-ul contului
+     * @return offset-urile liniilor; un tablou gol dacă IBAN-ul nu are tranzacții
+     */
+    public synchronized long[] positionsOf(String iban) {
+        Positions positions = positionsByIban.get(iban);
+        return positions == null ? new long[0] : Arrays.copyOf(positions.offsets, positions.size);
+    }
+
+    /**
+     * Reține intrarea ca primă (dacă indexul era gol) și ca ultimă linie indexată.
+     *
+     * @param entry intrarea indexată
+     */
+    private void record(Entry entry) {
+        if (first == null) {
+            first = entry;
+        }
+        last = entry;
+    }
+
+    /**
+     * Verifică dacă linia descrisă de intrare are în fișierul de date același conținut ca la indexare.
+     *
+     * @param channel canalul deschis al fișierului de date
+     * @param entry intrarea de verificat; null înseamnă că nu există nimic de verificat
+     * @return true dacă linia corespunde sau intrarea lipsește
+     * @throws IOException dacă apare o eroare de citire
+     */
+    private static boolean matches(FileChannel channel, Entry entry) throws IOException {
+        if (entry == null) {
+            return true;
+        }
+        if (entry.end() > channel.size()) {
+            return false;
+        }
+        ByteBuffer bytes = ByteBuffer.allocate((int) (entry.end() - entry.start()));
+        long position = entry.start();
+        while (bytes.hasRemaining()) {
+            int read = channel.read(bytes, position);
+            if (read < 0) {
+                return false;
+            }
+            position += read;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes.flip());
+        return crc.getValue() == entry.crc();
+    }
+
+    /**
+     * Golește indexul din memorie și de pe disc, pentru a fi reconstruit de la începutul fișierului.
+     *
+     * @throws IOException dacă fișierul de index nu poate fi șters
+     */
+    private void reset() throws IOException {
+        positionsByIban.clear();
+        coveredLength = 0;
+        first = null;
+        last = null;
+        Files.deleteIfExists(indexPath);
+    }
+
+    /**
+     * Extrage IBAN-ul dintr-o linie CSV de tranzacție.
+     *
+     * @param line linia CSV
+     * @return IBAN-ul sau null dacă linia nu este o tranzacție validă
+     */
+    private static String ibanOf(String line) {
+        int comma = line.indexOf(',');
+        if (comma <= 0) {
+            return null;
+        }
+        String iban = line.substring(0, comma).trim();
+        return iban.isEmpty() ? null : iban;
+    }
+}
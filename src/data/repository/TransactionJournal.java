@@ -0,0 +1,201 @@
+package data.repository;
+
+import data.models.Transaction;
+
+import java.io.CharArrayWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Jurnal append-only pentru tranzacții.
+ * Fiecare înregistrare nouă este adăugată la finalul fișierului, fără a rescrie istoricul.
+ * Scrierile concurente sunt grupate (group commit): primul apelant devine "lider",
+ * așteaptă fereastra de durabilitate, apoi scrie tot lotul acumulat și face un singur fsync.
+ */
+public class TransactionJournal implements Closeable {
+    private final FileChannel channel;
+    private final long durabilityWindowMillis;
+
+    private final List<Transaction> pending = new ArrayList<>();
+    private long appendedSeq;
+    private long durableSeq;
+    private long failedSeq;
+    private long durablePosition;
+    private IOException failure;
+    private boolean flushing;
+
+    private final CharArrayWriter encoded = new CharArrayWriter(4096);
+    private final CsvCodec.RecordWriter records = new CsvCodec.RecordWriter(encoded);
+
+    /**
+     * Deschide jurnalul pentru fișierul specificat.
+     *
+     * @param filePath calea fișierului de tranzacții
+     * @param durabilityWindowMillis cât așteaptă liderul pentru a aduna mai multe înregistrări într-un lot
+     * @throws IOException dacă fișierul nu poate fi deschis
+     */
+    public TransactionJournal(String filePath, long durabilityWindowMillis) throws IOException {
+        Path path = Paths.get(filePath);
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.durabilityWindowMillis = Math.max(0, durabilityWindowMillis);
+        terminateLastLine(path);
+        this.durablePosition = channel.size();
+    }
+
+    /**
+     * Adaugă un terminator de linie dacă fișierul existent nu se termină cu unul,
+     * astfel încât prima înregistrare nouă să nu fie lipită de ultima linie existentă.
+     *
+     * @param path calea fișierului de tranzacții
+     * @throws IOException dacă apare o eroare de citire sau scriere
+     */
+    private void terminateLastLine(Path path) throws IOException {
+        long size = channel.size();
+        if (size == 0) {
+            return;
+        }
+        ByteBuffer last = ByteBuffer.allocate(1);
+        try (FileChannel reader = FileChannel.open(path, StandardOpenOption.READ)) {
+            reader.read(last, size - 1);
+        }
+        if (last.get(0) != '\n') {
+            channel.write(ByteBuffer.wrap(System.lineSeparator().getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    /**
+     * Adaugă o tranzacție în jurnal și așteaptă până când aceasta este scrisă pe disc.
+     *
+     * @param transaction tranzacția de adăugat
+     * @throws IOException dacă lotul care conține tranzacția nu a putut fi scris
+     */
+    public void append(Transaction transaction) throws IOException {
+        appendAll(List.of(transaction));
+    }
+
+    /**
+     * Adaugă mai multe tranzacții în jurnal, ca o singură unitate, și așteaptă scrierea lor pe disc.
+     *
+     * @param transactions tranzacțiile de adăugat
+     * @return poziția în octeți de după ultimul lot scris; cuprinde cel puțin tranzacțiile adăugate
+     * @throws IOException dacă lotul care conține tranzacțiile nu a putut fi scris
+     */
+    public long appendAll(List<Transaction> transactions) throws IOException {
+        long seq;
+        synchronized (this) {
+            if (transactions.isEmpty()) {
+                return durablePosition;
+            }
+            pending.addAll(transactions);
+            appendedSeq += transactions.size();
+            seq = appendedSeq;
+        }
+        return awaitDurable(seq);
+    }
+
+    /**
+     * Așteaptă ca toate înregistrările până la secvența dată să fie durabile.
+     * Dacă nu există un lider activ, firul curent preia scrierea lotului.
+     *
+     * @param seq secvența care trebuie să devină durabilă
+     * @return poziția în octeți de după ultimul lot scris
+     * @throws IOException dacă scrierea lotului a eșuat
+     */
+    private long awaitDurable(long seq) throws IOException {
+        synchronized (this) {
+            while (true) {
+                if (seq <= failedSeq) {
+                    throw new IOException("Journal write failed", failure);
+                }
+                if (seq <= durableSeq) {
+                    return durablePosition;
+                }
+                if (!flushing) {
+                    flushing = true;
+                    break;
+                }
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for journal flush", e);
+                }
+            }
+        }
+
+        long upTo = seq;
+        try {
+            if (durabilityWindowMillis > 0) {
+                try {
+                    Thread.sleep(durabilityWindowMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            List<Transaction> batch;
+            synchronized (this) {
+                batch = new ArrayList<>(pending);
+                pending.clear();
+                upTo = appendedSeq;
+            }
+            long position = writeBatch(batch);
+            synchronized (this) {
+                durableSeq = upTo;
+                durablePosition = position;
+                return position;
+            }
+        } catch (IOException e) {
+            synchronized (this) {
+                failedSeq = upTo;
+                failure = e;
+            }
+            throw e;
+        } finally {
+            synchronized (this) {
+                flushing = false;
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Scrie un lot de tranzacții la finalul fișierului și forțează scrierea pe disc.
+     *
+     * @param batch lotul de tranzacții
+     * @return poziția în octeți de după lot
+     * @throws IOException dacă apare o eroare de scriere
+     */
+    private long writeBatch(List<Transaction> batch) throws IOException {
+        encoded.reset();
+        for (Transaction transaction : batch) {
+            records.text(transaction.getIban()).money(transaction.getAmountMinor())
+                    .date(CsvCodec.epochDayOf(transaction.getDate())).endRecord();
+        }
+        ByteBuffer buffer = StandardCharsets.UTF_8.encode(CharBuffer.wrap(encoded.toCharArray()));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+        return channel.size();
+    }
+
+    /**
+     * Închide jurnalul. Înregistrările confirmate sunt deja pe disc.
+     *
+     * @throws IOException dacă apare o eroare la închiderea fișierului
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -1,19 +1,29 @@
 package data.repository;
 
+import data.models.Money;
 import data.models.Transaction;
 
 import java.io.*;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Repository pentru operațiuni de încărcare și salvare a tranzacțiilor dintr-un fișier.
  */
 public class TransactionRepository {
-    private static final String FILE_PATH = "src/resources/transactions_file.txt";
+    static final String FILE_PATH = "src/resources/transactions_file.txt";
 
     /**
      * Încarcă toate tranzacțiile din fișierul specificat.
@@ -22,23 +32,116 @@ public class TransactionRepository {
      * @throws IOException dacă apare o eroare de citire a fișierului
      */
     public static List<Transaction> loadTransactions() throws IOException {
-        List<Transaction> transactions = new ArrayList<>();
-        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
-        try (BufferedReader reader = new BufferedReader(new FileReader(FILE_PATH))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length == 3) {
-                    String iban = parts[0].trim();
-                    double amount = Double.parseDouble(parts[1].trim());
-                    String dateString = parts[2].trim();
-                    try {
-                        Date date = dateFormat.parse(dateString);
-                        Transaction transaction = new Transaction(iban, amount, date);
-                        transactions.add(transaction);
-                    } catch (ParseException e) {
-                        System.err.println("Date format is incorrect: " + dateString);
+        return loadTransactions(FILE_PATH);
+    }
+
+    /**
+     * Încarcă toate tranzacțiile dintr-un fișier CSV dat.
+     *
+     * @param filePath calea fișierului CSV
+     * @return Lista de tranzacții încărcate
+     * @throws IOException dacă apare o eroare de citire a fișierului
+     */
+    public static List<Transaction> loadTransactions(String filePath) throws IOException {
+        try (Stream<Transaction> transactions = streamTransactions(filePath)) {
+            return transactions.collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Deschide un flux leneș peste tranzacțiile din fișierul implicit.
+     * Fiecare linie este interpretată doar când elementul este cerut, deci filtrele și limitele
+     * aplicate fluxului lucrează înregistrare cu înregistrare, în memorie constantă.
+     * Fluxul trebuie închis (de exemplu cu try-with-resources) pentru a elibera fișierul.
+     *
+     * @return Fluxul de tranzacții
+     * @throws IOException dacă fișierul nu poate fi deschis
+     */
+    public static Stream<Transaction> streamTransactions() throws IOException {
+        return streamTransactions(FILE_PATH);
+    }
+
+    /**
+     * Deschide un flux leneș peste tranzacțiile dintr-un fișier CSV dat.
+     *
+     * @param filePath calea fișierului CSV
+     * @return Fluxul de tranzacții; trebuie închis după folosire
+     * @throws IOException dacă fișierul nu poate fi deschis
+     */
+    public static Stream<Transaction> streamTransactions(String filePath) throws IOException {
+        Reader reader = new FileReader(filePath);
+        CsvCodec.RecordReader records = new CsvCodec.RecordReader(reader);
+        Spliterator<Transaction> spliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Transaction> action) {
+                try {
+                    while (records.next()) {
+                        Transaction transaction = toTransaction(records);
+                        if (transaction != null) {
+                            action.accept(transaction);
+                            return true;
+                        }
                     }
+                    return false;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Încarcă tranzacțiile scrise în fișier începând de la o poziție dată (în octeți).
+     * Folosit la pornire pentru a reciti doar coada jurnalului de după ultimul instantaneu.
+     *
+     * @param filePath calea fișierului CSV
+     * @param position poziția de început; trebuie să fie începutul unei linii
+     * @return Lista de tranzacții de după poziția dată
+     * @throws IOException dacă apare o eroare de citire a fișierului
+     */
+    public static List<Transaction> loadTransactionsSince(String filePath, long position) throws IOException {
+        List<Transaction> transactions = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            channel.position(position);
+            CsvCodec.RecordReader records = new CsvCodec.RecordReader(
+                    Channels.newReader(channel, StandardCharsets.UTF_8));
+            while (records.next()) {
+                Transaction transaction = toTransaction(records);
+                if (transaction != null) {
+                    transactions.add(transaction);
+                }
+            }
+        }
+        return transactions;
+    }
+
+    /**
+     * Încarcă doar liniile care încep la offset-urile date (de exemplu cele găsite în {@link TransactionIndex}),
+     * în loc să parcurgă întregul fișier.
+     *
+     * @param filePath calea fișierului CSV
+     * @param positions offset-urile de început ale liniilor
+     * @return Lista de tranzacții, în ordinea offset-urilor
+     * @throws IOException dacă apare o eroare de citire a fișierului
+     */
+    public static List<Transaction> loadTransactionsAt(String filePath, long[] positions) throws IOException {
+        List<Transaction> transactions = new ArrayList<>(positions.length);
+        CsvCodec.RecordReader records = new CsvCodec.RecordReader();
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(256);
+            for (long position : positions) {
+                records.parse(readLine(channel, position, buffer));
+                Transaction transaction = toTransaction(records);
+                if (transaction != null) {
+                    transactions.add(transaction);
                 }
             }
         }
@@ -46,19 +149,75 @@ public class TransactionRepository {
     }
 
     /**
-     * Salvează lista de tranzacții în fișierul specificat.
+     * Citește linia care începe la offset-ul dat.
+     *
+     * @param channel canalul fișierului
+     * @param position offset-ul de început al liniei
+     * @param buffer buffer reutilizat pentru citire
+     * @return linia citită, fără terminatorul de linie
+     * @throws IOException dacă apare o eroare de citire
+     */
+    private static String readLine(FileChannel channel, long position, ByteBuffer buffer) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(64);
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                byte b = buffer.get(i);
+                if (b == '\n') {
+                    return line.toString(StandardCharsets.UTF_8);
+                }
+                line.write(b);
+            }
+            position += read;
+        }
+        return line.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Transformă înregistrarea CSV curentă într-o tranzacție.
+     *
+     * @param records cititorul poziționat pe înregistrare
+     * @return tranzacția sau null dacă înregistrarea nu are formatul așteptat
+     */
+    static Transaction toTransaction(CsvCodec.RecordReader records) {
+        if (records.fieldCount() != 3) {
+            return null;
+        }
+        int epochDay = records.epochDay(2);
+        if (epochDay == CsvCodec.INVALID_DAY) {
+            System.err.println("Date format is incorrect: " + records.text(2));
+            return null;
+        }
+        return new Transaction(records.text(0), Money.ofMinor(records.money(1)), CsvCodec.toDate(epochDay));
+    }
+
+    /**
+     * Rescrie complet fișierul de tranzacții cu lista specificată.
      *
      * @param transactions Lista de tranzacții de salvat
      * @throws IOException dacă apare o eroare de scriere în fișier
      */
     public static void saveTransactions(List<Transaction> transactions) throws IOException {
-        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(FILE_PATH, true))) {
+        saveTransactions(FILE_PATH, transactions);
+    }
+
+    /**
+     * Rescrie complet un fișier CSV de tranzacții cu lista specificată.
+     *
+     * @param filePath calea fișierului CSV
+     * @param transactions Lista de tranzacții de salvat
+     * @throws IOException dacă apare o eroare de scriere în fișier
+     */
+    public static void saveTransactions(String filePath, List<Transaction> transactions) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
+            CsvCodec.RecordWriter records = new CsvCodec.RecordWriter(writer);
             for (Transaction transaction : transactions) {
-                String line = transaction.getIban() + "," + transaction.getAmount() + "," +
-                        dateFormat.format(transaction.getDate());
-                writer.write(line);
-                writer.newLine();
+                records.text(transaction.getIban()).money(transaction.getAmountMinor())
+                        .date(CsvCodec.epochDayOf(transaction.getDate())).endRecord();
             }
         }
     }
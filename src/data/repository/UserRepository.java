@@ -11,7 +11,7 @@ import java.util.List;
  * Repository pentru operațiuni de încărcare și salvare a utilizatorilor dintr-un fișier.
  */
 public class UserRepository {
-    private static final String FILE_PATH = "src/resources/users_file.txt";
+    static final String FILE_PATH = "src/resources/users_file.txt";
 
     /**
      * Încarcă toți utilizatorii din fișierul specificat.
@@ -20,15 +20,25 @@ public class UserRepository {
      * @throws IOException dacă apare o eroare de citire a fișierului
      */
     public static List<User> loadUsers() throws IOException {
+        return loadUsers(FILE_PATH);
+    }
+
+    /**
+     * Încarcă toți utilizatorii dintr-un fișier CSV dat.
+     *
+     * @param filePath calea fișierului CSV
+     * @return Lista de utilizatori încărcați
+     * @throws IOException dacă apare o eroare de citire a fișierului
+     */
+    public static List<User> loadUsers(String filePath) throws IOException {
         List<User> users = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(FILE_PATH))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length == 3) {
-                    String id = parts[0].trim();
-                    String firstName = parts[1].trim();
-                    String lastName = parts[2].trim();
+        try (Reader reader = new FileReader(filePath)) {
+            CsvCodec.RecordReader records = new CsvCodec.RecordReader(reader);
+            while (records.next()) {
+                if (records.fieldCount() == 3) {
+                    String id = records.text(0);
+                    String firstName = records.text(1);
+                    String lastName = records.text(2);
                     try {
                         User user = new User(id, firstName, lastName);
                         users.add(user);
@@ -48,11 +58,21 @@ public class UserRepository {
      * @throws IOException dacă apare o eroare de scriere în fișier
      */
     public static void saveUsers(List<User> users) throws IOException {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(FILE_PATH))) {
+        saveUsers(FILE_PATH, users);
+    }
+
+    /**
+     * Salvează lista de utilizatori într-un fișier CSV dat.
+     *
+     * @param filePath calea fișierului CSV
+     * @param users Lista de utilizatori de salvat
+     * @throws IOException dacă apare o eroare de scriere în fișier
+     */
+    public static void saveUsers(String filePath, List<User> users) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
+            CsvCodec.RecordWriter records = new CsvCodec.RecordWriter(writer);
             for (User user : users) {
-                String line = user.getId() + "," + user.getFirstName() + "," + user.getLastName();
-                writer.write(line);
-                writer.newLine();
+                records.text(user.getId()).text(user.getFirstName()).text(user.getLastName()).endRecord();
             }
         }
     }
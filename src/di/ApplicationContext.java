@@ -0,0 +1,190 @@
+package di;
+
+import data.repository.StorageEngine;
+import data.repository.StorageEngines;
+import di.service.AccountService;
+import di.service.AsyncTasks;
+import di.service.CheckpointService;
+import di.service.StartupLoader;
+import di.service.TransactionPipeline;
+import di.service.TransactionService;
+import di.service.UserService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Containerul serviciilor aplicației.
+ * Păstrează câte o singură instanță din fiecare serviciu, creată la prima cerere și partajată de toate ecranele,
+ * astfel încât navigarea între ecrane nu mai recitește fișierele de date.
+ * Utilizatorii, conturile și tranzacțiile sunt încărcate împreună, o singură dată, prin {@link StartupLoader};
+ * dacă încărcarea eșuează, serviciile sunt create direct peste motorul de stocare.
+ */
+public class ApplicationContext {
+    private static ApplicationContext instance;
+
+    private final StorageEngine storage;
+    private UserService userService;
+    private AccountService accountService;
+    private TransactionService transactionService;
+    private CheckpointService checkpointService;
+    private TransactionPipeline transactionPipeline;
+    private boolean loaded;
+
+    /**
+     * Creează un container gol peste motorul de stocare dat; serviciile sunt create la prima cerere.
+     *
+     * @param storage motorul de stocare folosit de servicii
+     */
+    public ApplicationContext(StorageEngine storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * Returnează containerul aplicației, creat la primul apel peste motorul de stocare configurat.
+     *
+     * @return containerul aplicației
+     */
+    public static synchronized ApplicationContext getInstance() {
+        if (instance == null) {
+            instance = new ApplicationContext(StorageEngines.getDefault());
+        }
+        return instance;
+    }
+
+    /**
+     * @return motorul de stocare al containerului
+     */
+    public StorageEngine getStorage() {
+        return storage;
+    }
+
+    /**
+     * @return serviciul de utilizatori partajat
+     */
+    public synchronized UserService getUserService() {
+        loadServices();
+        return userService;
+    }
+
+    /**
+     * @return serviciul de conturi partajat
+     */
+    public synchronized AccountService getAccountService() {
+        loadServices();
+        return accountService;
+    }
+
+    /**
+     * @return serviciul de tranzacții partajat
+     */
+    public synchronized TransactionService getTransactionService() {
+        loadServices();
+        return transactionService;
+    }
+
+    /**
+     * Returnează serviciul de instantanee pentru serviciile partajate. Serviciul nu este pornit automat.
+     * Dacă încărcarea inițială a eșuat, serviciile nu conțin toată starea persistată, iar un instantaneu
+     * scris peste ele ar ascunde la pornirea următoare datele din fișiere; în acest caz nu există serviciu
+     * de instantanee.
+     *
+     * @return serviciul de instantanee partajat sau null dacă serviciile nu provin dintr-o încărcare reușită
+     */
+    public synchronized CheckpointService getCheckpointService() {
+        loadServices();
+        if (!loaded) {
+            return null;
+        }
+        if (checkpointService == null) {
+            checkpointService = new CheckpointService(storage, userService, accountService, transactionService);
+        }
+        return checkpointService;
+    }
+
+    /**
+     * Returnează fluxul de preluare a tranzacțiilor peste serviciul de tranzacții partajat,
+     * creat și pornit la prima cerere.
+     *
+     * @return fluxul de preluare partajat
+     */
+    public synchronized TransactionPipeline getTransactionPipeline() {
+        if (transactionPipeline == null) {
+            transactionPipeline = new TransactionPipeline(getTransactionService());
+            transactionPipeline.start();
+        }
+        return transactionPipeline;
+    }
+
+    /**
+     * Oprește fluxul de preluare, dacă a fost creat, după ce toate tranzacțiile publicate au fost prelucrate.
+     *
+     * @throws IOException dacă scrierea unui lot în jurnal a eșuat
+     */
+    public synchronized void closeTransactionPipeline() throws IOException {
+        if (transactionPipeline != null) {
+            transactionPipeline.close();
+            transactionPipeline = null;
+        }
+    }
+
+    /**
+     * Importă tranzacțiile dintr-un fișier CSV (câte o linie {@code IBAN,sumă,dată}) prin fluxul de preluare
+     * partajat și așteaptă până când toate au trecut prin flux. Liniile goale sunt ignorate, iar liniile invalide
+     * sunt respinse de flux fără a opri importul.
+     *
+     * @param file fișierul CSV de importat
+     * @return numărul de linii publicate în flux
+     * @throws IOException dacă fișierul nu poate fi citit sau scrierea unui lot în jurnal a eșuat
+     */
+    public long importTransactions(Path file) throws IOException {
+        TransactionPipeline pipeline = getTransactionPipeline();
+        long count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    pipeline.publish(line);
+                    count++;
+                }
+            }
+        }
+        pipeline.flush();
+        return count;
+    }
+
+    /**
+     * Varianta asincronă a {@link #importTransactions(Path)}.
+     *
+     * @param file fișierul CSV de importat
+     * @return viitorul completat cu numărul de linii publicate în flux
+     */
+    public CompletableFuture<Long> importTransactionsAsync(Path file) {
+        return AsyncTasks.supply(() -> importTransactions(file));
+    }
+
+    /**
+     * Încarcă serviciile de date la prima cerere.
+     */
+    private void loadServices() {
+        if (userService != null) {
+            return;
+        }
+        try {
+            StartupLoader loader = StartupLoader.load(storage);
+            userService = loader.getUserService();
+            accountService = loader.getAccountService();
+            transactionService = loader.getTransactionService();
+            loaded = true;
+        } catch (IOException e) {
+            System.out.println("Error loading data: " + e.getMessage());
+            userService = new UserService(storage);
+            accountService = new AccountService(storage);
+            transactionService = new TransactionService(storage);
+            transactionService.setAccountService(accountService);
+        }
+    }
+}
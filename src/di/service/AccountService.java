@@ -1,26 +1,65 @@
 package di.service;
 
 import data.models.Account;
+import data.models.IbanDictionary;
+import data.models.Money;
 import domain.mappers.AccountMapper;
-import data.repository.AccountRepository;
+import data.repository.StorageEngine;
+import data.repository.StorageEngines;
+import domain.exceptions.InsufficientFundsException;
+import domain.exceptions.InvalidTransactionException;
 import domain.models.AccountModel;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntToLongFunction;
 import java.util.stream.Collectors;
 
 /**
  * Serviciu pentru gestionarea operațiunilor asupra conturilor bancare.
  * Oferă metode pentru încărcarea, salvarea, adăugarea și ștergerea conturilor.
+ * Conturile inserate, actualizate sau șterse sunt urmărite după IBAN, iar la salvare se persistă
+ * doar aceste modificări, nu întreaga listă de conturi.
+ * Conturile sunt păstrate într-un index principal după IBAN și într-un index secundar după
+ * ID-ul utilizatorului, astfel încât căutările după IBAN și după proprietar nu parcurg toate conturile.
+ * Un IBAN identifică un singur cont; rândurile repetate cu același IBAN sunt reunite la încărcare.
+ * Serviciul poate fi folosit din mai multe fire: indexurile sunt {@link ConcurrentHashMap}-uri, iar fiecare
+ * modificare a unui cont (inclusiv a soldului) este aplicată atomic pe intrarea IBAN-ului lui, deci modificările
+ * pe conturi diferite nu se blochează între ele, iar cititorii văd mereu o versiune completă a fiecărui cont.
+ * Fiecare cont reține, împreună cu soldul, totalul tranzacțiilor din registru incluse în sold
+ * ({@link AccountModel#getPostedMinor()}); ambele sunt persistate în același rând, deci la pornire
+ * {@link #reconcilePostings(IntToLongFunction)} poate aplica tranzacțiile scrise în jurnal după ultima salvare.
+ * Metodele {@code ...Async} rulează operația corespunzătoare pe un fir virtual, prin {@link AsyncTasks}.
  */
 public class AccountService {
-    private List<AccountModel> accounts = new ArrayList<>();
+    private final StorageEngine storage;
+    private final ConcurrentHashMap<Integer, AccountModel> byIban = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Map<Integer, AccountModel>> byUserId = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AccountModel> upserted = new ConcurrentHashMap<>();
+    private final Set<String> deleted = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<Integer, Long> reserved = new ConcurrentHashMap<>();
+    private volatile IntToLongFunction ledgerTotals;
 
     /**
-     * Creează un nou serviciu pentru gestionarea conturilor și încarcă conturile din fișier.
+     * Creează un nou serviciu pe motorul de stocare configurat și încarcă conturile.
      */
     public AccountService() {
+        this(StorageEngines.getDefault());
+    }
+
+    /**
+     * Creează un nou serviciu pe motorul de stocare dat și încarcă conturile.
+     *
+     * @param storage motorul de stocare
+     */
+    public AccountService(StorageEngine storage) {
+        this.storage = storage;
         try {
             loadAccountsFromFile();
         } catch (IOException e) {
@@ -29,15 +68,24 @@ public class AccountService {
     }
 
     /**
-     * Încarcă conturile din fișierul specificat și le adaugă în lista internă.
+     * Creează un serviciu pornind de la conturi deja încărcate, fără a mai citi fișierul.
+     *
+     * @param storage motorul de stocare
+     * @param listOfAccounts Conturile încărcate din fișier
+     */
+    public AccountService(StorageEngine storage, List<Account> listOfAccounts) {
+        this.storage = storage;
+        listOfAccounts.forEach(account -> index(AccountMapper.toModel(account), false));
+    }
+
+    /**
+     * Încarcă conturile din fișierul specificat și le adaugă în indexuri.
      *
      * @throws IOException dacă apare o eroare de citire a fișierului
      */
     private void loadAccountsFromFile() throws IOException {
-        List<Account> listOfAccounts = AccountRepository.loadAccounts();
-        List<AccountModel> list = listOfAccounts.stream().map(AccountMapper::toModel)
-                .collect(Collectors.toList());
-        accounts.addAll(list);
+        List<Account> listOfAccounts = storage.loadAccounts();
+        listOfAccounts.forEach(account -> index(AccountMapper.toModel(account), false));
     }
 
     /**
@@ -48,18 +96,165 @@ public class AccountService {
      * @throws IOException dacă apare o eroare de citire a datelor
      */
     public List<AccountModel> getAccountsByUserId(String userId) throws IOException {
-        return accounts.stream()
-                .filter(account -> account.getUserId().equals(userId))
-                .collect(Collectors.toList());
+        Map<Integer, AccountModel> owned = byUserId.get(userId);
+        return owned == null ? new ArrayList<>() : new ArrayList<>(owned.values());
+    }
+
+    /**
+     * Varianta asincronă a {@link #getAccountsByUserId(String)}.
+     *
+     * @param userId ID-ul utilizatorului
+     * @return viitorul completat cu conturile utilizatorului
+     */
+    public CompletableFuture<List<AccountModel>> getAccountsByUserIdAsync(String userId) {
+        return AsyncTasks.supply(() -> getAccountsByUserId(userId));
+    }
+
+    /**
+     * Returnează contul cu IBAN-ul dat.
+     *
+     * @param iban IBAN-ul contului
+     * @return contul sau null dacă nu există
+     */
+    public AccountModel getAccountByIban(String iban) {
+        int ibanId = IbanDictionary.lookup(iban);
+        return ibanId == IbanDictionary.NO_IBAN ? null : byIban.get(ibanId);
     }
 
     /**
-     * Adaugă un cont nou în lista internă de conturi.
+     * Adaugă un cont nou în indexurile de conturi; un cont existent cu același IBAN este înlocuit.
+     * Contul este marcat ca modificat și este persistat la următorul {@link #flushChanges()}.
      *
      * @param account Contul de adăugat
      */
     public void addAccount(AccountModel account) {
-        accounts.add(account);
+        index(account, true);
+    }
+
+    /**
+     * Înlocuiește contul cu același IBAN cu versiunea dată și îl marchează ca modificat.
+     *
+     * @param account Noua versiune a contului
+     */
+    public void updateAccount(AccountModel account) {
+        index(account, true);
+    }
+
+    /**
+     * Returnează soldul curent al contului cu IBAN-ul dat, fără a parcurge tranzacțiile.
+     *
+     * @param iban IBAN-ul contului
+     * @return soldul contului sau null dacă nu există
+     */
+    public Money getBalance(String iban) {
+        AccountModel account = getAccountByIban(iban);
+        return account == null ? null : account.getBalance();
+    }
+
+    /**
+     * Aplică o tranzacție înregistrată asupra soldului contului, incremental și atomic pe intrarea contului.
+     * Contul cu soldul nou înlocuiește versiunea anterioară și este marcat ca modificat,
+     * deci este persistat la următorul {@link #flushChanges()}.
+     *
+     * @param ibanId ID-ul IBAN-ului contului
+     * @param amountMinor suma tranzacției în subunități
+     * @param postedMinor totalul tranzacțiilor contului din registru după această tranzacție
+     *                    sau {@link Account#UNKNOWN_POSTED} dacă nu este cunoscut
+     * @return soldul nou în subunități sau null dacă nu există un cont cu acest IBAN
+     * @throws ArithmeticException dacă soldul depășește domeniul
+     */
+    public Long applyPosting(int ibanId, long amountMinor, long postedMinor) {
+        AccountModel updated = byIban.computeIfPresent(ibanId, (id, account) -> {
+            AccountModel posted = new AccountModel(account.getUserId(), id, account.getType(),
+                    Money.ofMinor(Money.add(account.getBalanceMinor(), amountMinor)), postedMinor);
+            addOwned(posted);
+            markUpserted(posted);
+            return posted;
+        });
+        return updated == null ? null : updated.getBalanceMinor();
+    }
+
+    /**
+     * Rezervă atomic o sumă din soldul disponibil al unui cont, de exemplu debitul unui transfer care urmează
+     * să fie scris în jurnal. Soldul disponibil este soldul minus rezervările active, iar verificarea și
+     * rezervarea se fac pe intrarea contului, deci rezervările concurente nu pot trece de sold.
+     * Rezervarea nu schimbă soldul; ea trebuie eliberată cu {@link #releaseDebit(int, long)}.
+     *
+     * @param ibanId ID-ul IBAN-ului contului
+     * @param amountMinor suma rezervată în subunități
+     * @throws InvalidTransactionException dacă nu există un cont cu acest IBAN
+     * @throws InsufficientFundsException dacă soldul disponibil este mai mic decât suma
+     */
+    public void reserveDebit(int ibanId, long amountMinor) {
+        AccountModel account = byIban.computeIfPresent(ibanId, (id, current) -> {
+            long available = Money.subtract(current.getBalanceMinor(), reserved.getOrDefault(id, 0L));
+            if (Money.compare(available, amountMinor) < 0) {
+                throw new InsufficientFundsException("Sold insuficient în contul " + current.getIban() + ": "
+                        + Money.format(available) + ".");
+            }
+            reserved.merge(id, amountMinor, Money::add);
+            return current;
+        });
+        if (account == null) {
+            throw new InvalidTransactionException("Contul " + IbanDictionary.ibanOf(ibanId) + " nu există.");
+        }
+    }
+
+    /**
+     * Eliberează o rezervare făcută cu {@link #reserveDebit(int, long)}.
+     *
+     * @param ibanId ID-ul IBAN-ului contului
+     * @param amountMinor suma rezervată în subunități
+     */
+    public void releaseDebit(int ibanId, long amountMinor) {
+        reserved.computeIfPresent(ibanId, (id, reservedMinor) -> {
+            long left = Money.subtract(reservedMinor, amountMinor);
+            return left == 0 ? null : left;
+        });
+    }
+
+    /**
+     * Leagă serviciul de totalurile pe cont ale registrului de tranzacții, folosite pentru conturile noi:
+     * soldul unui cont adăugat include tranzacțiile deja existente pe IBAN-ul lui.
+     *
+     * @param ledgerTotals funcția care întoarce totalul din registru al unui ID de IBAN
+     */
+    void setLedgerTotals(IntToLongFunction ledgerTotals) {
+        this.ledgerTotals = ledgerTotals;
+    }
+
+    /**
+     * Aduce soldurile la zi cu registrul încărcat: fiecărui cont i se aplică diferența dintre totalul lui
+     * din registru și totalul deja inclus în sold, adică tranzacțiile scrise în jurnal după ultima salvare
+     * a contului (de exemplu înaintea unei opriri neașteptate). Conturile fără total cunoscut (salvate în
+     * formatul vechi) sunt considerate la zi. Conturile modificate sunt marcate pentru {@link #flushChanges()}.
+     *
+     * @param ledgerTotals funcția care întoarce totalul din registru al unui ID de IBAN
+     * @return numărul de conturi modificate
+     */
+    public int reconcilePostings(IntToLongFunction ledgerTotals) {
+        int changed = 0;
+        for (Integer ibanId : byIban.keySet()) {
+            long totalMinor = ledgerTotals.applyAsLong(ibanId);
+            AccountModel before = byIban.get(ibanId);
+            AccountModel after = byIban.computeIfPresent(ibanId, (id, account) -> {
+                if (account.getPostedMinor() == totalMinor) {
+                    return account;
+                }
+                long balanceMinor = account.getPostedMinor() == Account.UNKNOWN_POSTED
+                        ? account.getBalanceMinor()
+                        : Money.add(account.getBalanceMinor(), Money.subtract(totalMinor, account.getPostedMinor()));
+                AccountModel reconciled = new AccountModel(account.getUserId(), id, account.getType(),
+                        Money.ofMinor(balanceMinor), totalMinor);
+                addOwned(reconciled);
+                markUpserted(reconciled);
+                return reconciled;
+            });
+            if (after != before) {
+                changed++;
+            }
+        }
+        return changed;
     }
 
     /**
@@ -68,41 +263,124 @@ public class AccountService {
      * @return O listă de conturi
      */
     public List<AccountModel> getAllAccounts() {
-        return accounts;
+        return new ArrayList<>(byIban.values());
     }
 
     /**
-     * Salvează lista de conturi în fișierul specificat.
+     * Salvează lista de conturi în fișierul specificat, rescriind-o complet.
+     * Modificările urmărite sunt incluse în listă, deci sunt considerate persistate.
      *
      * @param accounts Lista de conturi de salvat
      * @throws IOException dacă apare o eroare de scriere în fișier
      */
-    public void saveAccounts(List<AccountModel> accounts) throws IOException {
-        AccountRepository.saveAccounts(accounts.stream().map(
+    public synchronized void saveAccounts(List<AccountModel> accounts) throws IOException {
+        storage.saveAccounts(accounts.stream().map(
                 AccountMapper::toData).collect(Collectors.toList()));
+        upserted.clear();
+        deleted.clear();
     }
 
     /**
-     * Șterge un cont din lista internă și salvează modificările în fișier.
+     * Șterge un cont din lista internă și persistă doar ștergerea lui.
      *
      * @param accountModel Contul de șters
      * @throws IOException dacă apare o eroare de scriere în fișier
      */
     public void deleteAccountById(AccountModel accountModel) throws IOException {
-        accounts.removeIf(a -> a.equals(accountModel));
-        saveAccounts(accounts);
+        String iban = accountModel.getIban();
+        byIban.compute(accountModel.getIbanId(), (id, previous) -> {
+            if (previous != null) {
+                removeOwned(previous);
+            }
+            upserted.remove(iban);
+            deleted.add(iban);
+            return null;
+        });
+        flushChanges();
     }
 
     /**
-     * Reîncarcă lista finală de conturi din fișier și o salvează înapoi în fișier.
+     * Varianta asincronă a {@link #deleteAccountById(AccountModel)}.
      *
-     * @throws IOException dacă apare o eroare de citire sau scriere
+     * @param accountModel Contul de șters
+     * @return viitorul completat după persistarea ștergerii
+     */
+    public CompletableFuture<Void> deleteAccountByIdAsync(AccountModel accountModel) {
+        return AsyncTasks.run(() -> deleteAccountById(accountModel));
+    }
+
+    /**
+     * Persistă conturile inserate, actualizate sau șterse de la ultima salvare.
+     * Dacă nu există modificări, nu se scrie nimic. Modificările făcute în timpul scrierii
+     * rămân urmărite și sunt persistate la următorul apel.
+     *
+     * @throws IOException dacă apare o eroare de scriere
+     */
+    public synchronized void flushChanges() throws IOException {
+        if (upserted.isEmpty() && deleted.isEmpty()) {
+            return;
+        }
+        Map<String, AccountModel> changed = new HashMap<>(upserted);
+        List<String> removed = new ArrayList<>(deleted);
+        storage.applyAccountChanges(
+                changed.values().stream().map(AccountMapper::toData).collect(Collectors.toList()), removed);
+        changed.forEach(upserted::remove);
+        deleted.removeAll(removed);
+    }
+
+    /**
+     * Salvează la oprirea aplicației modificările făcute asupra conturilor.
+     * Se scriu doar modificările urmărite, astfel încât ștergerile făcute prin alte instanțe
+     * ale serviciului nu sunt suprascrise.
+     *
+     * @throws IOException dacă apare o eroare de scriere
      */
     public void saveFinalListOfAccounts() throws IOException {
-        accounts = AccountRepository.loadAccounts().stream().map(
-                AccountMapper::toModel
-        ).collect(Collectors.toList());
-        AccountRepository.saveAccounts(accounts.stream().map(
-                AccountMapper::toData).collect(Collectors.toList()));
+        flushChanges();
+    }
+
+    /**
+     * Adaugă contul în indexul după IBAN și în cel după utilizator, înlocuind atomic versiunea anterioară.
+     *
+     * @param account contul de indexat
+     * @param track true dacă modificarea trebuie persistată la următorul {@link #flushChanges()}
+     */
+    private void index(AccountModel account, boolean track) {
+        IntToLongFunction totals = ledgerTotals;
+        if (track && totals != null && account.getPostedMinor() == Account.UNKNOWN_POSTED) {
+            account = new AccountModel(account.getUserId(), account.getIbanId(), account.getType(),
+                    account.getBalance(), totals.applyAsLong(account.getIbanId()));
+        }
+        AccountModel indexed = account;
+        byIban.compute(indexed.getIbanId(), (id, previous) -> {
+            if (previous != null && !previous.getUserId().equals(indexed.getUserId())) {
+                removeOwned(previous);
+            }
+            addOwned(indexed);
+            if (track) {
+                markUpserted(indexed);
+            }
+            return indexed;
+        });
+    }
+
+    private void addOwned(AccountModel account) {
+        byUserId.compute(account.getUserId(), (userId, owned) -> {
+            Map<Integer, AccountModel> accounts = owned == null ? new ConcurrentHashMap<>() : owned;
+            accounts.put(account.getIbanId(), account);
+            return accounts;
+        });
+    }
+
+    private void removeOwned(AccountModel account) {
+        byUserId.computeIfPresent(account.getUserId(), (userId, owned) -> {
+            owned.remove(account.getIbanId());
+            return owned.isEmpty() ? null : owned;
+        });
+    }
+
+    private void markUpserted(AccountModel account) {
+        deleted.remove(account.getIban());
+        upserted.put(account.getIban(), account);
     }
 }
@@ -0,0 +1,86 @@
+package di.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Rulează operațiile blocante ale serviciilor (citiri și scrieri de fișiere) pe fire virtuale,
+ * câte un fir pentru fiecare operație, și returnează rezultatul ca {@link CompletableFuture}.
+ * Folosit de variantele {@code ...Async} ale serviciilor, pentru ca interfața să nu aștepte după disc.
+ * O {@link IOException} aruncată de operație completează viitorul cu o {@link UncheckedIOException};
+ * {@link #unwrap(Throwable)} returnează excepția originală.
+ */
+public final class AsyncTasks {
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * O operație care returnează un rezultat și poate arunca {@link IOException}.
+     *
+     * @param <T> tipul rezultatului
+     */
+    @FunctionalInterface
+    public interface IoSupplier<T> {
+        T get() throws IOException;
+    }
+
+    /**
+     * O operație fără rezultat care poate arunca {@link IOException}.
+     */
+    @FunctionalInterface
+    public interface IoRunnable {
+        void run() throws IOException;
+    }
+
+    private AsyncTasks() {
+    }
+
+    /**
+     * Rulează operația pe un fir virtual.
+     *
+     * @param task operația
+     * @param <T> tipul rezultatului
+     * @return viitorul completat cu rezultatul operației sau cu excepția ei
+     */
+    public static <T> CompletableFuture<T> supply(IoSupplier<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.get();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, EXECUTOR);
+    }
+
+    /**
+     * Rulează operația fără rezultat pe un fir virtual.
+     *
+     * @param task operația
+     * @return viitorul completat la terminarea operației sau cu excepția ei
+     */
+    public static CompletableFuture<Void> run(IoRunnable task) {
+        return supply(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Returnează excepția aruncată de operație, fără învelișurile {@link CompletionException}
+     * și {@link UncheckedIOException} adăugate de viitor.
+     *
+     * @param error excepția cu care s-a completat viitorul
+     * @return excepția originală
+     */
+    public static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof UncheckedIOException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
@@ -0,0 +1,92 @@
+package di.service;
+
+import data.models.Transaction;
+import data.repository.SnapshotRepository;
+import data.repository.StorageEngine;
+import domain.mappers.AccountMapper;
+import domain.mappers.UserMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Serviciu care scrie periodic instantanee binare ale stării serviciilor.
+ * Fiecare instantaneu reține poziția din jurnalul de tranzacții pe care o acoperă, astfel încât
+ * la pornire să fie recitită doar coada jurnalului.
+ */
+public class CheckpointService {
+    private static final long INTERVAL_SECONDS = Long.getLong("ebanking.checkpoint.intervalSeconds", 300);
+
+    private final StorageEngine storage;
+    private final UserService userService;
+    private final AccountService accountService;
+    private final TransactionService transactionService;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Creează serviciul de instantanee pentru serviciile date.
+     *
+     * @param storage motorul de stocare în care se salvează instantaneele
+     * @param userService serviciul de utilizatori
+     * @param accountService serviciul de conturi
+     * @param transactionService serviciul de tranzacții
+     */
+    public CheckpointService(StorageEngine storage, UserService userService, AccountService accountService,
+                             TransactionService transactionService) {
+        this.storage = storage;
+        this.userService = userService;
+        this.accountService = accountService;
+        this.transactionService = transactionService;
+    }
+
+    /**
+     * Pornește scrierea periodică a instantaneelor, la intervalul configurat prin
+     * {@code ebanking.checkpoint.intervalSeconds} (implicit 300 de secunde).
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                checkpoint();
+            } catch (IOException e) {
+                System.out.println("Error writing checkpoint: " + e.getMessage());
+            }
+        }, INTERVAL_SECONDS, INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Oprește scrierea periodică a instantaneelor.
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Scrie imediat un instantaneu al stării curente.
+     *
+     * @throws IOException dacă apare o eroare de scriere
+     */
+    public synchronized void checkpoint() throws IOException {
+        List<Transaction> transactions = new ArrayList<>();
+        long journalPosition = transactionService.captureTransactions(transactions);
+        storage.saveSnapshot(new SnapshotRepository.Snapshot(journalPosition,
+                userService.getAllUsers().stream().map(UserMapper::toData).collect(Collectors.toList()),
+                accountService.getAllAccounts().stream().map(AccountMapper::toData).collect(Collectors.toList()),
+                transactions));
+    }
+}
@@ -0,0 +1,57 @@
+package di.service;
+
+import java.util.Arrays;
+
+/**
+ * Coloane de tranzacții în patru tablouri primitive pe heap (struct-of-arrays).
+ */
+public class HeapTransactionColumns implements TransactionColumns {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private int[] ibanIds = new int[INITIAL_CAPACITY];
+    private long[] amountsMinor = new long[INITIAL_CAPACITY];
+    private int[] epochDays = new int[INITIAL_CAPACITY];
+    private long[] runningMinor = new long[INITIAL_CAPACITY];
+    private int size;
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void append(int ibanId, long amountMinor, int epochDay, long runningMinor) {
+        if (size == ibanIds.length) {
+            int capacity = size * 2;
+            ibanIds = Arrays.copyOf(ibanIds, capacity);
+            amountsMinor = Arrays.copyOf(amountsMinor, capacity);
+            epochDays = Arrays.copyOf(epochDays, capacity);
+            this.runningMinor = Arrays.copyOf(this.runningMinor, capacity);
+        }
+        ibanIds[size] = ibanId;
+        amountsMinor[size] = amountMinor;
+        epochDays[size] = epochDay;
+        this.runningMinor[size] = runningMinor;
+        size++;
+    }
+
+    @Override
+    public int ibanId(int row) {
+        return ibanIds[row];
+    }
+
+    @Override
+    public long amountMinor(int row) {
+        return amountsMinor[row];
+    }
+
+    @Override
+    public int epochDay(int row) {
+        return epochDays[row];
+    }
+
+    @Override
+    public long runningMinor(int row) {
+        return runningMinor[row];
+    }
+}
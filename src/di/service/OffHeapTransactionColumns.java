@@ -0,0 +1,118 @@
+package di.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Coloane de tranzacții păstrate în afara heap-ului, în blocuri de înregistrări de lungime fixă.
+ * Fiecare înregistrare ocupă {@value #RECORD_SIZE} octeți; primii 16 au aceeași structură ca în registrul binar:
+ * ID-ul IBAN-ului la deplasamentul {@value #IBAN_OFFSET}, suma la {@value #AMOUNT_OFFSET} și ziua epocii
+ * la {@value #DAY_OFFSET}, urmate de totalul cumulat al contului la {@value #RUNNING_OFFSET}. Blocurile sunt fie buffere directe ({@link #direct()}), fie regiuni ale unui fișier
+ * temporar mapat în memorie ({@link #mapped(Path)}), caz în care sistemul de operare poate evacua paginile
+ * pe disc. Pe heap rămâne doar tabloul de referințe către blocuri, deci heap-ul nu crește cu numărul de rânduri.
+ */
+public class OffHeapTransactionColumns implements TransactionColumns {
+    static final int RECORD_SIZE = 24;
+    static final int IBAN_OFFSET = 0;
+    static final int AMOUNT_OFFSET = 4;
+    static final int DAY_OFFSET = 12;
+    static final int RUNNING_OFFSET = 16;
+    private static final int ROWS_PER_BLOCK_SHIFT = 16;
+    private static final int ROWS_PER_BLOCK = 1 << ROWS_PER_BLOCK_SHIFT;
+    private static final int ROW_MASK = ROWS_PER_BLOCK - 1;
+    private static final int BLOCK_SIZE = ROWS_PER_BLOCK * RECORD_SIZE;
+
+    private final FileChannel channel;
+    private ByteBuffer[] blocks = new ByteBuffer[16];
+    private int size;
+
+    private OffHeapTransactionColumns(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Creează coloane în buffere directe, alocate în afara heap-ului.
+     *
+     * @return coloanele create
+     */
+    public static OffHeapTransactionColumns direct() {
+        return new OffHeapTransactionColumns(null);
+    }
+
+    /**
+     * Creează coloane într-un fișier temporar din directorul dat, mapat în memorie bloc cu bloc.
+     * Fișierul este șters la oprirea aplicației.
+     *
+     * @param directory directorul fișierului temporar
+     * @return coloanele create
+     * @throws IOException dacă fișierul nu poate fi creat
+     */
+    public static OffHeapTransactionColumns mapped(Path directory) throws IOException {
+        Path file = Files.createTempFile(directory, "transactions", ".columns");
+        file.toFile().deleteOnExit();
+        return new OffHeapTransactionColumns(FileChannel.open(file, StandardOpenOption.READ,
+                StandardOpenOption.WRITE));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void append(int ibanId, long amountMinor, int epochDay, long runningMinor) {
+        int block = size >>> ROWS_PER_BLOCK_SHIFT;
+        if (block == blocks.length) {
+            blocks = Arrays.copyOf(blocks, blocks.length * 2);
+        }
+        if (blocks[block] == null) {
+            blocks[block] = allocate(block);
+        }
+        ByteBuffer buffer = blocks[block];
+        int offset = (size & ROW_MASK) * RECORD_SIZE;
+        buffer.putInt(offset + IBAN_OFFSET, ibanId);
+        buffer.putLong(offset + AMOUNT_OFFSET, amountMinor);
+        buffer.putInt(offset + DAY_OFFSET, epochDay);
+        buffer.putLong(offset + RUNNING_OFFSET, runningMinor);
+        size++;
+    }
+
+    @Override
+    public int ibanId(int row) {
+        return blocks[row >>> ROWS_PER_BLOCK_SHIFT].getInt((row & ROW_MASK) * RECORD_SIZE + IBAN_OFFSET);
+    }
+
+    @Override
+    public long amountMinor(int row) {
+        return blocks[row >>> ROWS_PER_BLOCK_SHIFT].getLong((row & ROW_MASK) * RECORD_SIZE + AMOUNT_OFFSET);
+    }
+
+    @Override
+    public int epochDay(int row) {
+        return blocks[row >>> ROWS_PER_BLOCK_SHIFT].getInt((row & ROW_MASK) * RECORD_SIZE + DAY_OFFSET);
+    }
+
+    @Override
+    public long runningMinor(int row) {
+        return blocks[row >>> ROWS_PER_BLOCK_SHIFT].getLong((row & ROW_MASK) * RECORD_SIZE + RUNNING_OFFSET);
+    }
+
+    private ByteBuffer allocate(int block) {
+        if (channel == null) {
+            return ByteBuffer.allocateDirect(BLOCK_SIZE).order(ByteOrder.nativeOrder());
+        }
+        try {
+            return channel.map(FileChannel.MapMode.READ_WRITE, (long) block * BLOCK_SIZE, BLOCK_SIZE)
+                    .order(ByteOrder.nativeOrder());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map transaction block " + block, e);
+        }
+    }
+}
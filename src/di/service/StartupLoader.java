@@ -0,0 +1,150 @@
+package di.service;
+
+import data.models.Account;
+import data.models.Transaction;
+import data.models.User;
+import data.repository.SnapshotRepository;
+import data.repository.StorageEngine;
+import data.repository.StorageEngines;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Încarcă datele aplicației la pornire.
+ * Dacă există un instantaneu valid, starea este citită din el și se recitesc doar tranzacțiile
+ * adăugate în jurnal după instantaneu. Altfel, cele trei colecții (utilizatori, conturi, tranzacții)
+ * sunt citite concurent din motorul de stocare.
+ * După încărcare, soldurile sunt aduse la zi cu tranzacțiile din registru care nu erau incluse în soldurile
+ * salvate (de exemplu după o oprire fără salvarea conturilor), iar conturile corectate sunt persistate.
+ */
+public class StartupLoader {
+    private final UserService userService;
+    private final AccountService accountService;
+    private final TransactionService transactionService;
+
+    private StartupLoader(UserService userService, AccountService accountService,
+                          TransactionService transactionService) throws IOException {
+        this.userService = userService;
+        this.accountService = accountService;
+        this.transactionService = transactionService;
+        transactionService.setAccountService(accountService);
+        if (accountService.reconcilePostings(transactionService::ledgerTotalOf) > 0) {
+            accountService.flushChanges();
+        }
+    }
+
+    /**
+     * Încarcă starea aplicației din motorul de stocare configurat.
+     *
+     * @return Încărcătorul care conține serviciile populate
+     * @throws IOException dacă unul dintre fișiere nu poate fi citit
+     */
+    public static StartupLoader load() throws IOException {
+        return load(StorageEngines.getDefault());
+    }
+
+    /**
+     * Încarcă starea aplicației din motorul de stocare dat, folosind ultimul instantaneu atunci când este posibil.
+     *
+     * @param storage motorul de stocare
+     * @return Încărcătorul care conține serviciile populate
+     * @throws IOException dacă unul dintre fișiere nu poate fi citit
+     */
+    public static StartupLoader load(StorageEngine storage) throws IOException {
+        SnapshotRepository.Snapshot snapshot = storage.loadSnapshot();
+        if (snapshot != null && snapshot.getJournalPosition() <= storage.journalPosition()) {
+            return loadFromSnapshot(storage, snapshot);
+        }
+        return loadFiles(storage);
+    }
+
+    /**
+     * Reconstruiește starea din instantaneu și din coada jurnalului de tranzacții.
+     * Fișierele de utilizatori sau conturi modificate după instantaneu sunt recitite.
+     *
+     * @param storage motorul de stocare
+     * @param snapshot instantaneul încărcat
+     * @return Încărcătorul care conține serviciile populate
+     * @throws IOException dacă unul dintre fișiere nu poate fi citit
+     */
+    private static StartupLoader loadFromSnapshot(StorageEngine storage, SnapshotRepository.Snapshot snapshot)
+            throws IOException {
+        List<User> users = snapshot.isUsersFileUnchanged() ? snapshot.getUsers() : storage.loadUsers();
+        List<Account> accounts = snapshot.isAccountsFileUnchanged()
+                ? snapshot.getAccounts() : storage.loadAccounts();
+        List<Transaction> transactions = new ArrayList<>(snapshot.getTransactions());
+        transactions.addAll(storage.loadTransactionsSince(snapshot.getJournalPosition()));
+        return new StartupLoader(new UserService(storage, users), new AccountService(storage, accounts),
+                new TransactionService(storage, transactions, storage.journalPosition()));
+    }
+
+    /**
+     * Încarcă toate colecțiile de date în paralel, pe pool-ul fork-join comun.
+     *
+     * @param storage motorul de stocare
+     * @return Încărcătorul care conține serviciile populate
+     * @throws IOException dacă unul dintre fișiere nu poate fi citit
+     */
+    private static StartupLoader loadFiles(StorageEngine storage) throws IOException {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        CompletableFuture<List<User>> users = CompletableFuture.supplyAsync(() -> {
+            try {
+                return storage.loadUsers();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, pool);
+        CompletableFuture<List<Account>> accounts = CompletableFuture.supplyAsync(() -> {
+            try {
+                return storage.loadAccounts();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, pool);
+        CompletableFuture<List<Transaction>> transactions = CompletableFuture.supplyAsync(() -> {
+            try {
+                return storage.loadTransactions();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, pool);
+
+        try {
+            return new StartupLoader(new UserService(storage, users.join()),
+                    new AccountService(storage, accounts.join()),
+                    new TransactionService(storage, transactions.join(), storage.journalPosition()));
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return Serviciul de utilizatori populat
+     */
+    public UserService getUserService() {
+        return userService;
+    }
+
+    /**
+     * @return Serviciul de conturi populat
+     */
+    public AccountService getAccountService() {
+        return accountService;
+    }
+
+    /**
+     * @return Serviciul de tranzacții populat
+     */
+    public TransactionService getTransactionService() {
+        return transactionService;
+    }
+}
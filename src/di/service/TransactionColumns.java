@@ -0,0 +1,50 @@
+package di.service;
+
+/**
+ * Stocarea pe coloane a rândurilor din {@link TransactionStore}, cu accesori tipizați pe câmp.
+ * Fiecare rând are patru câmpuri: ID-ul IBAN-ului (int), suma în subunități (long), ziua epocii (int)
+ * și totalul cumulat al contului după acest rând (long), din care se calculează soldul după tranzacție.
+ * Implementările pot păstra rândurile pe heap ({@link HeapTransactionColumns}) sau în afara lui
+ * ({@link OffHeapTransactionColumns}); {@link TransactionStore} și indexurile lui nu depind de această alegere.
+ * Implementările nu sunt sincronizate; accesul este protejat de blocarea benzii care conține {@link TransactionStore}.
+ */
+public interface TransactionColumns {
+    /**
+     * @return numărul de rânduri
+     */
+    int size();
+
+    /**
+     * Adaugă un rând la final.
+     *
+     * @param ibanId ID-ul IBAN-ului
+     * @param amountMinor suma în subunități
+     * @param epochDay data ca zi a epocii
+     * @param runningMinor totalul tranzacțiilor contului până la acest rând inclusiv, în subunități
+     */
+    void append(int ibanId, long amountMinor, int epochDay, long runningMinor);
+
+    /**
+     * @param row indicele rândului
+     * @return ID-ul IBAN-ului de pe rând
+     */
+    int ibanId(int row);
+
+    /**
+     * @param row indicele rândului
+     * @return suma în subunități de pe rând
+     */
+    long amountMinor(int row);
+
+    /**
+     * @param row indicele rândului
+     * @return data ca zi a epocii de pe rând
+     */
+    int epochDay(int row);
+
+    /**
+     * @param row indicele rândului
+     * @return totalul cumulat al contului după rând, în subunități
+     */
+    long runningMinor(int row);
+}
@@ -0,0 +1,279 @@
+package di.service;
+
+import data.models.Money;
+import data.repository.CsvCodec;
+import domain.models.TransactionModel;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Cache LRU cu istoricul tranzacțiilor pe cont, limitat după greutate.
+ * Fiecare istoric este păstrat compact, ca sume în subunități, zile ale epocii și totaluri cumulate,
+ * iar greutatea lui este numărul de tranzacții (cel puțin 1); când greutatea totală depășește limita,
+ * sunt eliminate istoricele folosite cel mai de demult. Istoricele sunt returnate ca vederi doar-citire care creează modelele la acces,
+ * deci modificarea unui model returnat nu afectează cache-ul.
+ * Un istoric calculat în timp ce un cont este invalidat nu este păstrat, pentru a nu reține date vechi.
+ * Cache-ul este împărțit în segmente după ID-ul IBAN-ului, fiecare cu propriul LRU, propria limită
+ * (o parte egală din limita totală) și propria blocare, astfel încât conturile din segmente diferite
+ * nu se așteaptă între ele.
+ */
+public class TransactionHistoryCache {
+    private final Segment[] segments;
+
+    /**
+     * Istoricul unui cont, în ordinea din registru, cu totalul cumulat după fiecare tranzacție.
+     */
+    public static class History extends AbstractList<TransactionModel> {
+        private final int ibanId;
+        private final long[] amountsMinor;
+        private final int[] epochDays;
+        private final long[] runningMinor;
+
+        private History(int ibanId, List<TransactionModel> transactions) {
+            this.ibanId = ibanId;
+            this.amountsMinor = new long[transactions.size()];
+            this.epochDays = new int[transactions.size()];
+            this.runningMinor = new long[transactions.size()];
+            long running = 0;
+            for (int i = 0; i < amountsMinor.length; i++) {
+                TransactionModel transaction = transactions.get(i);
+                amountsMinor[i] = transaction.getAmountMinor();
+                epochDays[i] = CsvCodec.epochDayOf(transaction.getDate());
+                running = Money.add(running, amountsMinor[i]);
+                runningMinor[i] = running;
+            }
+        }
+
+        /**
+         * @param index poziția în istoric
+         * @return totalul tranzacțiilor din istoric până la poziție inclusiv, în subunități
+         */
+        public long runningMinor(int index) {
+            return runningMinor[index];
+        }
+
+        /**
+         * @return totalul tuturor tranzacțiilor din istoric, în subunități
+         */
+        public long totalMinor() {
+            return runningMinor.length == 0 ? 0 : runningMinor[runningMinor.length - 1];
+        }
+
+        @Override
+        public TransactionModel get(int index) {
+            return new TransactionModel(ibanId, Money.ofMinor(amountsMinor[index]), CsvCodec.toDate(epochDays[index]));
+        }
+
+        @Override
+        public int size() {
+            return amountsMinor.length;
+        }
+
+        private long weight() {
+            return Math.max(1, amountsMinor.length);
+        }
+    }
+
+    /**
+     * Creează un cache gol, cu un singur segment.
+     *
+     * @param maxWeight numărul maxim de tranzacții păstrate în total
+     */
+    public TransactionHistoryCache(long maxWeight) {
+        this(maxWeight, 1);
+    }
+
+    /**
+     * Creează un cache gol, împărțit în segmente.
+     *
+     * @param maxWeight numărul maxim de tranzacții păstrate în total
+     * @param segmentCount numărul de segmente
+     * @throws IllegalArgumentException dacă numărul de segmente nu este pozitiv
+     */
+    public TransactionHistoryCache(long maxWeight, int segmentCount) {
+        if (segmentCount <= 0) {
+            throw new IllegalArgumentException("Segment count must be positive: " + segmentCount);
+        }
+        segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(maxWeight / segmentCount);
+        }
+    }
+
+    /**
+     * Returnează istoricul păstrat pentru un cont și îl marchează ca folosit recent.
+     *
+     * @param ibanId ID-ul IBAN-ului
+     * @return istoricul contului sau null dacă nu este în cache
+     */
+    public History get(int ibanId) {
+        return segmentOf(ibanId).get(ibanId);
+    }
+
+    /**
+     * Returnează generația curentă a segmentului contului, care crește la fiecare invalidare din segment.
+     * Se citește înainte de a calcula un istoric și se transmite la {@link #put(int, List, long)}.
+     *
+     * @param ibanId ID-ul IBAN-ului
+     * @return generația curentă
+     */
+    public long generation(int ibanId) {
+        return segmentOf(ibanId).generation();
+    }
+
+    /**
+     * Păstrează istoricul unui cont, dacă nu a avut loc nicio invalidare în segmentul lui de la generația dată
+     * și dacă istoricul încape în limita segmentului.
+     *
+     * @param ibanId ID-ul IBAN-ului
+     * @param transactions tranzacțiile contului
+     * @param expectedGeneration generația citită înainte de calcularea istoricului
+     * @return istoricul, ca vedere doar-citire, indiferent dacă a fost păstrat sau nu
+     */
+    public History put(int ibanId, List<TransactionModel> transactions, long expectedGeneration) {
+        return segmentOf(ibanId).put(new History(ibanId, transactions), expectedGeneration);
+    }
+
+    /**
+     * Elimină istoricul unui cont, de exemplu după adăugarea unei tranzacții pe acel cont.
+     *
+     * @param ibanId ID-ul IBAN-ului
+     */
+    public void invalidate(int ibanId) {
+        segmentOf(ibanId).invalidate(ibanId);
+    }
+
+    /**
+     * Elimină toate istoricele din cache. Contoarele nu sunt resetate.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * @return numărul de conturi din cache
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * @return greutatea totală a istoricelor din cache
+     */
+    public long getWeight() {
+        return sum(segment -> segment.weight);
+    }
+
+    /**
+     * @return numărul de căutări găsite în cache
+     */
+    public long getHits() {
+        return sum(segment -> segment.hits);
+    }
+
+    /**
+     * @return numărul de căutări care nu au fost găsite în cache
+     */
+    public long getMisses() {
+        return sum(segment -> segment.misses);
+    }
+
+    /**
+     * @return numărul de istorice eliminate pentru a respecta limita de greutate
+     */
+    public long getEvictions() {
+        return sum(segment -> segment.evictions);
+    }
+
+    private Segment segmentOf(int ibanId) {
+        return segments[Math.floorMod(ibanId, segments.length)];
+    }
+
+    private long sum(ToLongFunction<Segment> counter) {
+        long total = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                total += counter.applyAsLong(segment);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Un segment al cache-ului: un LRU limitat după greutate, protejat de propriul monitor.
+     */
+    private static class Segment {
+        private final long maxWeight;
+        private final LinkedHashMap<Integer, History> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private long weight;
+        private long generation;
+        private long hits;
+        private long misses;
+        private long evictions;
+
+        private Segment(long maxWeight) {
+            this.maxWeight = maxWeight;
+        }
+
+        private synchronized History get(int ibanId) {
+            History history = entries.get(ibanId);
+            if (history == null) {
+                misses++;
+            } else {
+                hits++;
+            }
+            return history;
+        }
+
+        private synchronized long generation() {
+            return generation;
+        }
+
+        private synchronized History put(History history, long expectedGeneration) {
+            if (expectedGeneration != generation || history.weight() > maxWeight) {
+                return history;
+            }
+            History previous = entries.put(history.ibanId, history);
+            if (previous != null) {
+                weight -= previous.weight();
+            }
+            weight += history.weight();
+            Iterator<Map.Entry<Integer, History>> eldest = entries.entrySet().iterator();
+            while (weight > maxWeight && eldest.hasNext()) {
+                weight -= eldest.next().getValue().weight();
+                eldest.remove();
+                evictions++;
+            }
+            return history;
+        }
+
+        private synchronized void invalidate(int ibanId) {
+            generation++;
+            History removed = entries.remove(ibanId);
+            if (removed != null) {
+                weight -= removed.weight();
+            }
+        }
+
+        private synchronized void clear() {
+            generation++;
+            entries.clear();
+            weight = 0;
+        }
+
+        private synchronized int size() {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,591 @@
+package di.service;
+
+import data.models.IbanDictionary;
+import data.models.Money;
+import data.models.Transaction;
+import data.repository.CsvCodec;
+import domain.exceptions.InvalidTransactionException;
+import domain.mappers.TransactionMapper;
+import domain.models.TransactionModel;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Flux de preluare a tranzacțiilor construit pe un buffer circular prealocat, în stilul Disruptor.
+ * Producătorii publică linii CSV ({@code IBAN,sumă,dată}) sau modele de tranzacții în sloturile buffer-ului,
+ * iar patru etape, fiecare pe propriul fir, le prelucrează în ordine: decodare, validare, scriere în jurnal
+ * și aplicare în depozit și în solduri. Fiecare etapă preia toate sloturile disponibile de la etapa anterioară
+ * și le prelucrează ca un lot; etapa de jurnal scrie un lot printr-un singur apel
+ * {@link data.repository.StorageEngine#appendTransactions(List)}, deci o singură scriere și un singur fsync.
+ * Sloturile și câmpurile lor sunt refolosite, iar decodarea și validarea lucrează pe valori primitive;
+ * singurele obiecte create pe eveniment sunt tranzacțiile (cu suma și data lor) transmise motorului de stocare,
+ * deoarece {@link data.repository.StorageEngine} primește obiecte {@link Transaction}.
+ * Tranzacțiile invalide sunt numărate și sărite, fără a opri fluxul; erorile de scriere sau de aplicare a unui lot
+ * sunt reținute și raportate de următorul {@link #flush()} sau {@link #close()}.
+ * Capacitatea buffer-ului ({@code ebanking.pipeline.capacity}, implicit 65536, rotunjită la o putere a lui 2)
+ * limitează numărul de tranzacții în curs, iar strategia de așteptare ({@code ebanking.pipeline.waitStrategy}:
+ * {@code busy-spin}, {@code yielding} sau {@code sleeping}, implicit) alege între latență și consumul de procesor.
+ */
+public class TransactionPipeline implements Closeable {
+    private static final int DEFAULT_CAPACITY = Integer.getInteger("ebanking.pipeline.capacity", 65_536);
+
+    private final TransactionService transactionService;
+    private final WaitStrategy waitStrategy;
+    private final Slot[] slots;
+    private final int mask;
+
+    private final Sequence published = new Sequence();
+    private final Stage[] stages;
+
+    private volatile boolean running;
+    private final LongAdder rejected = new LongAdder();
+    private volatile Exception failure;
+
+    /**
+     * Strategia folosită de o etapă (sau de un producător) cât timp așteaptă sloturi disponibile.
+     */
+    public enum WaitStrategy {
+        /**
+         * Învârtire continuă: latența cea mai mică, dar ține ocupat câte un procesor pentru fiecare etapă.
+         */
+        BUSY_SPIN {
+            @Override
+            void idle(int attempt) {
+                Thread.onSpinWait();
+            }
+        },
+        /**
+         * Învârtire scurtă, apoi cedarea procesorului către alte fire.
+         */
+        YIELDING {
+            @Override
+            void idle(int attempt) {
+                if (attempt < 100) {
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+        },
+        /**
+         * Învârtire, cedare, apoi pauze scurte; potrivită când fluxul este mult timp inactiv.
+         */
+        SLEEPING {
+            @Override
+            void idle(int attempt) {
+                if (attempt < 100) {
+                    Thread.onSpinWait();
+                } else if (attempt < 200) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(100_000);
+                }
+            }
+        };
+
+        abstract void idle(int attempt);
+
+        /**
+         * @param name numele strategiei ({@code busy-spin}, {@code yielding} sau {@code sleeping})
+         * @return strategia cu numele dat
+         * @throws IllegalArgumentException dacă numele nu este cunoscut
+         */
+        public static WaitStrategy of(String name) {
+            return valueOf(name.trim().toUpperCase().replace('-', '_'));
+        }
+    }
+
+    /**
+     * Un slot al buffer-ului; câmpurile sunt scrise de o singură etapă odată și refolosite la fiecare tur.
+     */
+    private static final class Slot {
+        private char[] line = new char[64];
+        private int length;
+        private boolean decodedByProducer;
+        private int ibanId;
+        private long amountMinor;
+        private int epochDay;
+        private boolean valid;
+        private Transaction transaction;
+        private long postingStamp;
+    }
+
+    /**
+     * Contor de secvență al unei etape, cu câmpuri de umplere pentru a nu împărți linia de cache cu vecinii.
+     */
+    @SuppressWarnings("unused")
+    private static final class Sequence extends AtomicLong {
+        private long p1, p2, p3, p4, p5, p6, p7;
+
+        private Sequence() {
+            super(-1);
+        }
+    }
+
+    /**
+     * Creează un flux cu capacitatea și strategia de așteptare configurate.
+     *
+     * @param transactionService serviciul în care sunt scrise și aplicate tranzacțiile
+     */
+    public TransactionPipeline(TransactionService transactionService) {
+        this(transactionService, DEFAULT_CAPACITY,
+                WaitStrategy.of(System.getProperty("ebanking.pipeline.waitStrategy", "sleeping")));
+    }
+
+    /**
+     * Creează un flux oprit; etapele pornesc la {@link #start()}.
+     *
+     * @param transactionService serviciul în care sunt scrise și aplicate tranzacțiile
+     * @param capacity numărul de sloturi, rotunjit în sus la o putere a lui 2
+     * @param waitStrategy strategia de așteptare a etapelor și a producătorilor
+     * @throws IllegalArgumentException dacă capacitatea nu este pozitivă
+     */
+    public TransactionPipeline(TransactionService transactionService, int capacity, WaitStrategy waitStrategy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.transactionService = transactionService;
+        this.waitStrategy = waitStrategy;
+        int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        this.slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = size - 1;
+        DecodeStage decode = new DecodeStage();
+        ValidateStage validate = new ValidateStage(decode);
+        JournalStage journal = new JournalStage(validate);
+        this.stages = new Stage[]{decode, validate, journal, new ApplyStage(journal)};
+    }
+
+    /**
+     * Pornește firele etapelor.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        for (Stage stage : stages) {
+            stage.thread.start();
+        }
+    }
+
+    /**
+     * Publică o tranzacție ca linie CSV ({@code IBAN,sumă,dată}); linia este copiată în slot și decodată
+     * de etapa de decodare. Dacă buffer-ul este plin, apelul așteaptă eliberarea unui slot.
+     *
+     * @param line linia CSV
+     * @return secvența tranzacției în flux
+     * @throws IllegalStateException dacă fluxul nu este pornit
+     */
+    public synchronized long publish(CharSequence line) {
+        long sequence = claim();
+        Slot slot = slots[(int) (sequence & mask)];
+        if (slot.line.length < line.length()) {
+            slot.line = new char[Math.max(line.length(), slot.line.length * 2)];
+        }
+        for (int i = 0; i < line.length(); i++) {
+            slot.line[i] = line.charAt(i);
+        }
+        slot.length = line.length();
+        slot.decodedByProducer = false;
+        published.setRelease(sequence);
+        return sequence;
+    }
+
+    /**
+     * Publică o tranzacție deja decodată, ca model; etapa de decodare o lasă neschimbată.
+     * Dacă buffer-ul este plin, apelul așteaptă eliberarea unui slot.
+     *
+     * @param transaction tranzacția de publicat
+     * @return secvența tranzacției în flux
+     * @throws IllegalStateException dacă fluxul nu este pornit
+     */
+    public synchronized long publish(TransactionModel transaction) {
+        long sequence = claim();
+        Slot slot = slots[(int) (sequence & mask)];
+        slot.decodedByProducer = true;
+        slot.ibanId = transaction.getIbanId();
+        slot.amountMinor = transaction.getAmountMinor();
+        slot.epochDay = transaction.getDate() == null
+                ? CsvCodec.INVALID_DAY : CsvCodec.epochDayOf(transaction.getDate());
+        published.setRelease(sequence);
+        return sequence;
+    }
+
+    /**
+     * Așteaptă până când toate tranzacțiile publicate au trecut prin flux.
+     *
+     * @throws IOException dacă scrierea unui lot în jurnal a eșuat de la ultimul apel; tranzacțiile acelui lot
+     *                     nu au fost aplicate
+     * @throws RuntimeException dacă aplicarea unui lot deja scris în jurnal a eșuat de la ultimul apel
+     */
+    public void flush() throws IOException {
+        long target = published.get();
+        for (int attempt = 0; applied().get() < target; attempt++) {
+            waitStrategy.idle(attempt);
+        }
+        Exception error = failure;
+        if (error != null) {
+            failure = null;
+            if (error instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw (RuntimeException) error;
+        }
+    }
+
+    /**
+     * Oprește fluxul după ce toate tranzacțiile publicate au fost prelucrate.
+     *
+     * @throws IOException dacă scrierea unui lot în jurnal a eșuat
+     * @throws RuntimeException dacă aplicarea unui lot deja scris în jurnal a eșuat
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            try {
+                flush();
+            } finally {
+                running = false;
+            }
+        }
+        for (Stage stage : stages) {
+            try {
+                stage.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return numărul de tranzacții publicate
+     */
+    public long getPublished() {
+        return published.get() + 1;
+    }
+
+    /**
+     * @return numărul de tranzacții care au trecut prin toate etapele, inclusiv cele respinse
+     */
+    public long getProcessed() {
+        return applied().get() + 1;
+    }
+
+    /**
+     * @return numărul de tranzacții respinse la decodare sau la validare
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    private long claim() {
+        if (!running) {
+            throw new IllegalStateException("Pipeline is not running.");
+        }
+        long sequence = published.get() + 1;
+        for (int attempt = 0; sequence - slots.length > applied().getAcquire(); attempt++) {
+            waitStrategy.idle(attempt);
+        }
+        return sequence;
+    }
+
+    /**
+     * @return secvența ultimei etape, până la care sloturile pot fi refolosite
+     */
+    private Sequence applied() {
+        return stages[stages.length - 1].own;
+    }
+
+    /**
+     * O etapă a fluxului, rulată pe propriul fir: preia toate sloturile publicate de etapa anterioară,
+     * le prelucrează în ordine, închide lotul și apoi își publică secvența. Firul se oprește când fluxul
+     * este oprit și etapa anterioară s-a oprit fără să mai lase sloturi neprelucrate.
+     */
+    private abstract class Stage implements Runnable {
+        private final Stage previous;
+        private final Sequence upstream;
+        private final Sequence own = new Sequence();
+        private final Thread thread;
+
+        private Stage(String name, Stage previous) {
+            this.previous = previous;
+            this.upstream = previous == null ? published : previous.own;
+            this.thread = new Thread(this, "pipeline-" + name);
+            thread.setDaemon(true);
+        }
+
+        abstract void onSlot(Slot slot);
+
+        void onBatchEnd() {
+        }
+
+        @Override
+        public void run() {
+            int attempt = 0;
+            while (true) {
+                long next = own.get() + 1;
+                long available = upstream.getAcquire();
+                if (available < next) {
+                    if (!running && (previous == null || !previous.thread.isAlive()) && own.get() >= upstream.get()) {
+                        return;
+                    }
+                    waitStrategy.idle(attempt++);
+                    continue;
+                }
+                attempt = 0;
+                for (long sequence = next; sequence <= available; sequence++) {
+                    onSlot(slots[(int) (sequence & mask)]);
+                }
+                onBatchEnd();
+                own.setRelease(available);
+            }
+        }
+    }
+
+    /**
+     * Etapa de decodare: împarte linia în câmpuri și interpretează IBAN-ul, suma și data direct din slot.
+     */
+    private final class DecodeStage extends Stage {
+        private final IbanCache ibans = new IbanCache();
+
+        private DecodeStage() {
+            super("decode", null);
+        }
+
+        @Override
+        void onSlot(Slot slot) {
+            if (slot.decodedByProducer) {
+                return;
+            }
+            char[] line = slot.line;
+            int end = slot.length;
+            int first = indexOf(line, ',', 0, end);
+            int second = first < 0 ? -1 : indexOf(line, ',', first + 1, end);
+            if (second < 0 || indexOf(line, ',', second + 1, end) >= 0) {
+                reject(slot, "Invalid record: " + new String(line, 0, end));
+                return;
+            }
+            try {
+                slot.ibanId = ibans.idOf(line, trimStart(line, 0, first), trimEnd(line, 0, first));
+                slot.amountMinor = Money.parseMinor(line, trimStart(line, first + 1, second),
+                        trimEnd(line, first + 1, second));
+                slot.epochDay = CsvCodec.parseEpochDay(line, trimStart(line, second + 1, end),
+                        trimEnd(line, second + 1, end));
+                slot.valid = true;
+            } catch (NumberFormatException e) {
+                reject(slot, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Etapa de validare: aplică regulile din {@link TransactionMapper} și verifică data.
+     */
+    private final class ValidateStage extends Stage {
+        private ValidateStage(Stage previous) {
+            super("validate", previous);
+        }
+
+        @Override
+        void onSlot(Slot slot) {
+            if (!slot.decodedByProducer && !slot.valid) {
+                return;
+            }
+            slot.valid = false;
+            if (slot.epochDay == CsvCodec.INVALID_DAY) {
+                reject(slot, "Date format is incorrect.");
+                return;
+            }
+            try {
+                TransactionMapper.validate(slot.ibanId, slot.amountMinor);
+                slot.valid = true;
+            } catch (InvalidTransactionException e) {
+                reject(slot, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Etapa de jurnal: scrie tranzacțiile valide ale lotului printr-o singură adăugare. Blocarea instantaneelor
+     * luată aici este păstrată în ultimul slot al lotului și eliberată de etapa de aplicare, după ce lotul
+     * a fost aplicat, astfel încât niciun instantaneu nu vede lotul scris în jurnal, dar neaplicat.
+     */
+    private final class JournalStage extends Stage {
+        private final List<Transaction> batch = new ArrayList<>();
+        private final List<Slot> batchSlots = new ArrayList<>();
+
+        private JournalStage(Stage previous) {
+            super("journal", previous);
+        }
+
+        @Override
+        void onSlot(Slot slot) {
+            slot.postingStamp = 0;
+            slot.transaction = null;
+            if (slot.valid) {
+                slot.transaction = new Transaction(slot.ibanId, Money.ofMinor(slot.amountMinor),
+                        CsvCodec.toDate(slot.epochDay));
+                batch.add(slot.transaction);
+                batchSlots.add(slot);
+            }
+        }
+
+        @Override
+        void onBatchEnd() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            long stamp = transactionService.beginPosting();
+            try {
+                transactionService.journal(batch);
+            } catch (IOException e) {
+                System.out.println("Error writing transactions: " + e.getMessage());
+                failure = e;
+                batchSlots.forEach(slot -> slot.transaction = null);
+            }
+            batchSlots.get(batchSlots.size() - 1).postingStamp = stamp;
+            batch.clear();
+            batchSlots.clear();
+        }
+    }
+
+    /**
+     * Etapa de aplicare: adaugă tranzacțiile scrise în jurnal în depozit și în soldurile conturilor,
+     * apoi eliberează blocarea luată de etapa de jurnal pentru fiecare lot terminat.
+     */
+    private final class ApplyStage extends Stage {
+        private final List<Transaction> batch = new ArrayList<>();
+
+        private ApplyStage(Stage previous) {
+            super("apply", previous);
+        }
+
+        @Override
+        void onSlot(Slot slot) {
+            if (slot.transaction != null) {
+                batch.add(slot.transaction);
+                slot.transaction = null;
+            }
+            if (slot.postingStamp != 0) {
+                long stamp = slot.postingStamp;
+                slot.postingStamp = 0;
+                try {
+                    transactionService.postJournaled(batch);
+                } catch (RuntimeException e) {
+                    System.out.println("Error applying transactions: " + e.getMessage());
+                    failure = e;
+                } finally {
+                    transactionService.endPosting(stamp);
+                    batch.clear();
+                }
+            }
+        }
+    }
+
+    private void reject(Slot slot, String reason) {
+        slot.valid = false;
+        rejected.increment();
+        System.out.println("Rejected transaction: " + reason);
+    }
+
+    private static int indexOf(char[] chars, char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (chars[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int trimStart(char[] chars, int from, int to) {
+        while (from < to && chars[from] <= ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    private static int trimEnd(char[] chars, int from, int to) {
+        while (to > from && chars[to - 1] <= ' ') {
+            to--;
+        }
+        return to;
+    }
+
+    /**
+     * Cache al etapei de decodare care găsește ID-ul unui IBAN direct din caracterele liniei,
+     * fără a crea un șir pentru IBAN-urile deja întâlnite. Folosit de un singur fir.
+     */
+    private static final class IbanCache {
+        private String[] keys = new String[1024];
+        private int[] ids = new int[1024];
+        private int size;
+
+        private int idOf(char[] chars, int start, int end) {
+            int hash = 0;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + chars[i];
+            }
+            int index = mix(hash) & (keys.length - 1);
+            while (keys[index] != null) {
+                if (matches(keys[index], chars, start, end)) {
+                    return ids[index];
+                }
+                index = (index + 1) & (keys.length - 1);
+            }
+            String iban = new String(chars, start, end - start);
+            int id = IbanDictionary.idOf(iban);
+            keys[index] = iban;
+            ids[index] = id;
+            if (++size * 2 > keys.length) {
+                grow();
+            }
+            return id;
+        }
+
+        private static boolean matches(String key, char[] chars, int start, int end) {
+            if (key.length() != end - start) {
+                return false;
+            }
+            for (int i = 0; i < key.length(); i++) {
+                if (key.charAt(i) != chars[start + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int mix(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+
+        private void grow() {
+            String[] oldKeys = keys;
+            int[] oldIds = ids;
+            keys = new String[oldKeys.length * 2];
+            ids = new int[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) {
+                    int index = mix(oldKeys[i].hashCode()) & (keys.length - 1);
+                    while (keys[index] != null) {
+                        index = (index + 1) & (keys.length - 1);
+                    }
+                    keys[index] = oldKeys[i];
+                    ids[index] = oldIds[i];
+                }
+            }
+        }
+    }
+}
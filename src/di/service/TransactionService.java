@@ -1,21 +1,198 @@
 package di.service;
 
+import data.models.Account;
+import data.models.IbanDictionary;
+import data.models.Money;
 import data.models.Transaction;
-import data.repository.TransactionRepository;
+import data.repository.CsvCodec;
+import data.repository.StorageEngine;
+import data.repository.StorageEngines;
+import domain.exceptions.InsufficientFundsException;
+import domain.exceptions.InvalidTransactionException;
 import domain.mappers.TransactionMapper;
 import domain.models.TransactionModel;
 
 import java.io.IOException;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Serviciu pentru gestionarea operațiunilor asupra tranzacțiilor bancare.
  * Oferă metode pentru încărcarea, salvarea, adăugarea și obținerea tranzacțiilor.
+ * Tranzacțiile încărcate sunt păstrate în depozite {@link TransactionStore} pe coloane, iar interogările
+ * rulează ca bucle peste tablouri primitive; un serviciu creat fără tranzacții interoghează motorul de stocare.
+ * Registrul este împărțit în {@code ebanking.ledger.stripes} benzi (implicit 16) după ID-ul IBAN-ului; fiecare bandă
+ * are propriul depozit și propria blocare, deci tranzacțiile pe conturi din benzi diferite sunt aplicate în paralel,
+ * iar citirile unui cont văd mereu o stare completă a contului. Toate tranzacțiile unui cont sunt în aceeași bandă.
+ * Tranzacțiile unui cont pot fi cerute pe un interval de date, ca ultimele N sau pe pagini, mergând înapoi
+ * în timp de la un cursor; toate aceste interogări returnează tranzacțiile ordonate după dată.
+ * Când tranzacțiile nu sunt în memorie, istoricele pe cont citite din motor sunt păstrate într-un cache LRU
+ * limitat la {@code ebanking.historyCache.maxTransactions} tranzacții (implicit 100000), invalidat pe cont
+ * la fiecare adăugare.
+ * Dacă serviciul este legat de un {@link AccountService}, fiecare tranzacție adăugată actualizează incremental
+ * soldul contului, iar tranzacțiile returnate au completat soldul de după ele
+ * ({@link TransactionModel#getBalanceAfter()}), în ordinea în care tranzacțiile au fost înregistrate, calculat
+ * din soldul curent și din totalul cumulat păstrat pe fiecare rând, fără a readuna registrul.
+ * La fiecare tranzacție aplicată, contul reține și totalul lui din registru, astfel încât la pornire
+ * soldurile sunt aduse la zi cu tranzacțiile scrise în jurnal după ultima salvare a conturilor.
+ * Transferurile între conturi ({@link #transfer(String, String, Money)}) blochează benzile celor două conturi
+ * în ordinea indicilor, deci nu se pot bloca reciproc, și scriu debitul și creditul în jurnal printr-o singură adăugare.
+ * Loturile de tranzacții ({@link #addTransactions(Collection)}) sunt validate în întregime și scrise în jurnal
+ * printr-o singură scriere, apoi aplicate împreună.
+ * Metodele {@code ...Async} rulează operația corespunzătoare pe un fir virtual, prin {@link AsyncTasks}.
  */
 public class TransactionService {
-    private List<TransactionModel> transactions = new ArrayList<>();
+    /**
+     * Cursorul care cere prima pagină, cu cele mai recente tranzacții.
+     */
+    public static final long FIRST_PAGE = Long.MAX_VALUE;
+    private static final long HISTORY_CACHE_WEIGHT = Long.getLong("ebanking.historyCache.maxTransactions", 100_000);
+    private static final int LEDGER_STRIPES = Math.max(1, Integer.getInteger("ebanking.ledger.stripes", 16));
+
+    private final StorageEngine storage;
+    private final Stripe[] stripes = new Stripe[LEDGER_STRIPES];
+    private final boolean loaded;
+    private final StampedLock checkpointLock = new StampedLock();
+    private final AtomicLong journalPosition = new AtomicLong();
+    private final TransactionHistoryCache historyCache =
+            new TransactionHistoryCache(HISTORY_CACHE_WEIGHT, LEDGER_STRIPES);
+    private volatile AccountService accountService;
+
+    {
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * O bandă a registrului: depozitul tranzacțiilor conturilor din bandă și blocarea care le protejează.
+     * Depozitul nu are sincronizare proprie: scrierile țin blocarea de scriere, iar toate citirile țin blocarea de citire.
+     */
+    private static class Stripe {
+        private final TransactionStore transactions = new TransactionStore();
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    }
+
+    /**
+     * O pagină din istoricul unui cont, împreună cu cursorul paginii următoare (mai vechi).
+     */
+    public static class Page {
+        private final List<TransactionModel> transactions;
+        private final long nextCursor;
+        private final boolean hasMore;
+
+        private Page(List<TransactionModel> transactions, long nextCursor, boolean hasMore) {
+            this.transactions = transactions;
+            this.nextCursor = nextCursor;
+            this.hasMore = hasMore;
+        }
+
+        /**
+         * @return tranzacțiile paginii, ordonate după dată
+         */
+        public List<TransactionModel> getTransactions() {
+            return transactions;
+        }
+
+        /**
+         * @return cursorul care cere pagina următoare, cu tranzacții mai vechi decât cele din pagină
+         */
+        public long getNextCursor() {
+            return nextCursor;
+        }
+
+        /**
+         * @return true dacă există tranzacții mai vechi decât cele din pagină
+         */
+        public boolean hasMore() {
+            return hasMore;
+        }
+    }
+
+    /**
+     * O tranzacție citită din motor, împreună cu cheia ei de ordonare (zi, număr de ordine în cont).
+     */
+    private static class Keyed {
+        private final long key;
+        private final TransactionModel transaction;
+
+        private Keyed(long key, TransactionModel transaction) {
+            this.key = key;
+            this.transaction = transaction;
+        }
+    }
+
+    /**
+     * Creează un serviciu pe motorul de stocare configurat, fără tranzacții în memorie;
+     * interogările pe cont citesc direct din motor.
+     */
+    public TransactionService() {
+        this(StorageEngines.getDefault());
+    }
+
+    /**
+     * Creează un serviciu pe motorul de stocare dat, fără tranzacții în memorie.
+     *
+     * @param storage motorul de stocare
+     */
+    public TransactionService(StorageEngine storage) {
+        this.storage = storage;
+        this.loaded = false;
+    }
+
+    /**
+     * Creează un serviciu pornind de la tranzacții deja încărcate.
+     *
+     * @param storage motorul de stocare
+     * @param listOfTransactions Tranzacțiile încărcate din fișier
+     * @param journalPosition poziția din jurnal până la care au fost încărcate tranzacțiile
+     */
+    public TransactionService(StorageEngine storage, List<Transaction> listOfTransactions, long journalPosition) {
+        this.storage = storage;
+        this.journalPosition.set(journalPosition);
+        for (Transaction transaction : listOfTransactions) {
+            TransactionMapper.validate(transaction);
+            stripeOf(transaction.getIbanId()).transactions.add(transaction);
+        }
+        this.loaded = true;
+    }
+
+    /**
+     * Leagă serviciul de serviciul de conturi, ale cărui solduri sunt actualizate la fiecare tranzacție adăugată.
+     *
+     * @param accountService serviciul de conturi
+     */
+    public void setAccountService(AccountService accountService) {
+        this.accountService = accountService;
+        if (loaded) {
+            accountService.setLedgerTotals(this::ledgerTotalOf);
+        }
+    }
+
+    /**
+     * Returnează totalul tranzacțiilor unui cont din registrul încărcat în memorie.
+     *
+     * @param ibanId ID-ul IBAN-ului contului
+     * @return totalul în subunități
+     */
+    public long ledgerTotalOf(int ibanId) {
+        return readStripe(ibanId, transactions -> transactions.totalMinor(ibanId));
+    }
 
     /**
      * Încarcă tranzacțiile din fișierul specificat și le adaugă în lista internă.
@@ -23,57 +200,705 @@ public class TransactionService {
      * @throws IOException dacă apare o eroare de citire a fișierului
      */
     private void loadTransactionsFromFile() throws IOException {
-        List<Transaction> listOfTransactions = TransactionRepository.loadTransactions();
-        List<TransactionModel> list = listOfTransactions.stream()
-                .map(TransactionMapper::toModel)
-                .collect(Collectors.toList());
-        transactions.addAll(list);
+        try (Stream<Transaction> stream = storage.streamTransactions()) {
+            stream.peek(TransactionMapper::validate)
+                    .forEach(transaction -> stripeOf(transaction.getIbanId()).transactions.add(transaction));
+        }
+    }
+
+    /**
+     * Returnează cele mai recente tranzacții ale unui cont, după dată.
+     * Dacă tranzacțiile sunt în memorie, se folosește indexul contului; altfel se citește istoricul contului
+     * (din cache sau prin indexul pe IBAN al motorului).
+     *
+     * @param iban IBAN-ul contului
+     * @param limit numărul maxim de tranzacții returnate
+     * @return Ultimele tranzacții ale contului, ordonate după dată
+     * @throws IOException dacă apare o eroare de citire a fișierului
+     */
+    public List<TransactionModel> getLatestTransactions(String iban, int limit) throws IOException {
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        int ibanId = IbanDictionary.idOf(iban);
+        if (loaded) {
+            return readStripe(ibanId,
+                    transactions -> toModelsWithBalances(ibanId, transactions.latestRowsOf(ibanId, limit)));
+        }
+        List<Keyed> keyed = loadKeyed(iban);
+        return keyed.subList(Math.max(0, keyed.size() - limit), keyed.size()).stream()
+                .map(k -> k.transaction).collect(Collectors.toList());
+    }
+
+    /**
+     * Returnează tranzacțiile unui cont dintr-un interval de date.
+     * Dacă tranzacțiile sunt în memorie, intervalul este căutat binar în indexul contului;
+     * altfel se citesc tranzacțiile contului din motorul de stocare.
+     *
+     * @param iban IBAN-ul contului
+     * @param from data de început (inclusiv)
+     * @param to data de sfârșit (inclusiv)
+     * @return Tranzacțiile din interval, ordonate după dată
+     * @throws IOException dacă apare o eroare de citire a fișierului
+     */
+    public List<TransactionModel> getTransactions(String iban, Date from, Date to) throws IOException {
+        int fromDay = CsvCodec.epochDayOf(from);
+        int toDay = CsvCodec.epochDayOf(to);
+        if (loaded) {
+            int ibanId = IbanDictionary.idOf(iban);
+            return readStripe(ibanId,
+                    transactions -> toModelsWithBalances(ibanId, transactions.rangeRowsOf(ibanId, fromDay, toDay)));
+        }
+        List<TransactionModel> result = new ArrayList<>();
+        for (Keyed keyed : loadKeyed(iban)) {
+            int day = (int) (keyed.key >> 32);
+            if (day >= fromDay && day <= toDay) {
+                result.add(keyed.transaction);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returnează o pagină din istoricul unui cont: cel mult {@code limit} tranzacții, cele mai recente
+     * dintre cele aflate înaintea cursorului. Prima pagină se cere cu {@link #FIRST_PAGE}, iar următoarele
+     * cu {@link Page#getNextCursor()} al paginii anterioare. Tranzacțiile adăugate între timp nu mută paginile
+     * deja citite, deoarece cursorul reține data și poziția ultimei tranzacții întoarse.
+     *
+     * @param iban IBAN-ul contului
+     * @param cursor cursorul paginii
+     * @param limit numărul maxim de tranzacții din pagină
+     * @return pagina cerută
+     * @throws IOException dacă apare o eroare de citire a fișierului
+     */
+    public Page getTransactionsBefore(String iban, long cursor, int limit) throws IOException {
+        if (limit <= 0) {
+            return new Page(new ArrayList<>(), cursor, false);
+        }
+        if (loaded) {
+            int ibanId = IbanDictionary.idOf(iban);
+            return readStripe(ibanId, transactions -> {
+                int[] rows = transactions.rowsBefore(ibanId, (int) (cursor >> 32), (int) cursor, limit + 1);
+                boolean hasMore = rows.length > limit;
+                int[] page = hasMore ? Arrays.copyOfRange(rows, 1, rows.length) : rows;
+                long next = page.length == 0 ? cursor : cursorOf(transactions.epochDayOf(page[0]), page[0]);
+                return new Page(toModelsWithBalances(ibanId, page), next, hasMore);
+            });
+        }
+        List<Keyed> keyed = loadKeyed(iban);
+        int end = 0;
+        while (end < keyed.size() && keyed.get(end).key < cursor) {
+            end++;
+        }
+        int start = Math.max(0, end - limit);
+        List<TransactionModel> page = keyed.subList(start, end).stream()
+                .map(k -> k.transaction).collect(Collectors.toList());
+        return new Page(page, start < end ? keyed.get(start).key : cursor, start > 0);
+    }
+
+    /**
+     * Varianta asincronă a {@link #getTransactionsBefore(String, long, int)}.
+     *
+     * @param iban IBAN-ul contului
+     * @param cursor cursorul paginii
+     * @param limit numărul maxim de tranzacții din pagină
+     * @return viitorul completat cu pagina cerută
+     */
+    public CompletableFuture<Page> getTransactionsBeforeAsync(String iban, long cursor, int limit) {
+        return AsyncTasks.supply(() -> getTransactionsBefore(iban, cursor, limit));
+    }
+
+    /**
+     * Citește tranzacțiile unui cont (din cache sau din motor) și le ordonează după (zi, număr de ordine în cont).
+     * Numărul de ordine este poziția tranzacției printre tranzacțiile contului din fișier, deci rămâne
+     * stabil când se adaugă tranzacții noi.
+     *
+     * @param iban IBAN-ul contului
+     * @return tranzacțiile contului cu cheile lor, ordonate
+     * @throws IOException dacă apare o eroare de citire a fișierului
+     */
+    private List<Keyed> loadKeyed(String iban) throws IOException {
+        List<TransactionModel> accountTransactions = getTransactionsByAccountIban(iban);
+        List<Keyed> keyed = new ArrayList<>(accountTransactions.size());
+        for (int i = 0; i < accountTransactions.size(); i++) {
+            TransactionModel transaction = accountTransactions.get(i);
+            keyed.add(new Keyed(cursorOf(CsvCodec.epochDayOf(transaction.getDate()), i), transaction));
+        }
+        keyed.sort(Comparator.comparingLong(k -> k.key));
+        return keyed;
+    }
+
+    /**
+     * Codifică o poziție din istoricul unui cont ca cursor; ordinea cursoarelor este ordinea (zi, poziție).
+     *
+     * @param epochDay data ca zi a epocii
+     * @param position rândul din depozit sau numărul de ordine în cont
+     * @return cursorul
+     */
+    private static long cursorOf(int epochDay, int position) {
+        return ((long) epochDay << 32) | (position & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Calculează suma tranzacțiilor unui cont într-un interval de date.
+     * Dacă tranzacțiile sunt în memorie, suma se calculează în subunități peste coloanele depozitului;
+     * altfel se citesc din motor doar tranzacțiile contului din interval.
+     *
+     * @param iban IBAN-ul contului
+     * @param from data de început (inclusiv)
+     * @param to data de sfârșit (inclusiv)
+     * @return Suma tranzacțiilor din interval
+     * @throws IOException dacă apare o eroare de citire a fișierului
+     */
+    public Money sumTransactions(String iban, Date from, Date to) throws IOException {
+        int ibanId = IbanDictionary.idOf(iban);
+        if (loaded) {
+            int fromDay = CsvCodec.epochDayOf(from);
+            int toDay = CsvCodec.epochDayOf(to);
+            return Money.ofMinor(readStripe(ibanId, transactions -> transactions.sumMinor(ibanId, fromDay, toDay)));
+        }
+        return Money.ofMinor(storage.loadTransactionsBetween(iban, from, to).stream()
+                .mapToLong(Transaction::getAmountMinor)
+                .reduce(0, Money::add));
     }
 
     /**
      * Returnează lista de tranzacții asociate unui cont, identificat prin IBAN.
+     * Dacă tranzacțiile sunt în memorie, istoricul este construit direct din depozitul benzii, sub blocarea ei
+     * de citire. Altfel este citit din motor (motorul CSV citește doar liniile contului, pe baza indexului pe IBAN)
+     * și păstrat în {@link TransactionHistoryCache}; citirea din motor se face fără blocarea benzii, iar generația
+     * contului împiedică păstrarea în cache a unui istoric depășit de o adăugare concurentă.
      *
      * @param iban IBAN-ul contului
-     * @return O listă de tranzacții pentru contul specificat
+     * @return O listă doar-citire de tranzacții pentru contul specificat, în ordinea din registru
      * @throws IOException dacă apare o eroare de citire a fișierului
      */
     public List<TransactionModel> getTransactionsByAccountIban(String iban) throws IOException {
-        List<Transaction> transactions = TransactionRepository.loadTransactions();
-        return transactions.stream()
-                .filter(transaction -> transaction.getIban().equals(iban))
-                .map(TransactionMapper::toModel)
-                .collect(Collectors.toList());
+        int ibanId = IbanDictionary.idOf(iban);
+        if (loaded) {
+            return readStripe(ibanId, transactions -> Collections.unmodifiableList(
+                    toModelsWithBalances(ibanId, transactions.rowsOf(ibanId))));
+        }
+        TransactionHistoryCache.History history = historyCache.get(ibanId);
+        if (history == null) {
+            long generation = historyCache.generation(ibanId);
+            List<TransactionModel> loadedHistory = storage.loadTransactionsByIban(iban).stream()
+                    .map(TransactionMapper::toModel)
+                    .collect(Collectors.toList());
+            history = historyCache.put(ibanId, loadedHistory, generation);
+        }
+        return withBalances(history, currentBalance(ibanId));
+    }
+
+    /**
+     * Varianta asincronă a {@link #getTransactionsByAccountIban(String)}.
+     *
+     * @param iban IBAN-ul contului
+     * @return viitorul completat cu tranzacțiile contului, în ordinea din registru
+     */
+    public CompletableFuture<List<TransactionModel>> getTransactionsByAccountIbanAsync(String iban) {
+        return AsyncTasks.supply(() -> getTransactionsByAccountIban(iban));
+    }
+
+    /**
+     * Returnează un istoric care completează soldul de după fiecare tranzacție. Soldul de deschidere
+     * este soldul curent minus totalul istoricului, iar soldul după o tranzacție este soldul de deschidere
+     * plus totalul cumulat până la ea.
+     *
+     * @param history istoricul contului, în ordinea din registru
+     * @param balance soldul curent al contului sau null dacă nu este cunoscut
+     * @return vederea istoricului, doar-citire
+     */
+    private static List<TransactionModel> withBalances(TransactionHistoryCache.History history, Money balance) {
+        if (balance == null) {
+            return history;
+        }
+        long openingMinor = Money.subtract(balance.getMinor(), history.totalMinor());
+        return new AbstractList<TransactionModel>() {
+            @Override
+            public TransactionModel get(int index) {
+                TransactionModel transaction = history.get(index);
+                transaction.setBalanceAfter(Money.ofMinor(Money.add(openingMinor, history.runningMinor(index))));
+                return transaction;
+            }
+
+            @Override
+            public int size() {
+                return history.size();
+            }
+        };
+    }
+
+    /**
+     * @param ibanId ID-ul IBAN-ului
+     * @return soldul curent al contului sau null dacă serviciul nu este legat de conturi ori contul nu există
+     */
+    private Money currentBalance(int ibanId) {
+        AccountService accounts = accountService;
+        return accounts == null ? null : accounts.getBalance(IbanDictionary.ibanOf(ibanId));
+    }
+
+    /**
+     * Returnează cache-ul istoricelor pe cont, de exemplu pentru a citi contoarele lui.
+     *
+     * @return cache-ul serviciului
+     */
+    public TransactionHistoryCache getHistoryCache() {
+        return historyCache;
     }
 
     /**
-     * Adaugă o tranzacție nouă și o salvează în fișier.
+     * Adaugă o tranzacție nouă și o scrie în jurnalul de tranzacții.
+     * Doar înregistrarea nouă este scrisă în fișier.
      *
      * @param transaction Tranzacția de adăugat
      * @throws IOException dacă apare o eroare de scriere în fișier
      */
     public void addTransaction(TransactionModel transaction) throws IOException {
-        transactions.add(transaction);
-        TransactionRepository.saveTransactions(transactions.stream().map(
-                TransactionMapper::toData).collect(Collectors.toList()));
+        Transaction data = TransactionMapper.toData(transaction);
+        long stamp = checkpointLock.readLock();
+        try {
+            append(List.of(data));
+            post(data);
+        } finally {
+            checkpointLock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Varianta asincronă a {@link #addTransaction(TransactionModel)}.
+     *
+     * @param transaction Tranzacția de adăugat
+     * @return viitorul completat după scrierea și aplicarea tranzacției
+     */
+    public CompletableFuture<Void> addTransactionAsync(TransactionModel transaction) {
+        return AsyncTasks.run(() -> addTransaction(transaction));
+    }
+
+    /**
+     * Transferă o sumă între două conturi: debitează contul sursă și creditează contul destinație,
+     * cu aceeași dată. Debitul este întâi rezervat atomic în {@link AccountService#reserveDebit(int, long)},
+     * care verifică soldul disponibil, deci transferurile concurente nu pot trece de sold. Cele două tranzacții
+     * sunt apoi scrise în jurnal printr-un singur apel {@link StorageEngine#appendTransactions(List)}, fără
+     * blocările benzilor, și aplicate împreună sub blocările de scriere ale benzilor ambelor conturi, luate în
+     * ordinea indicilor; cititorii văd fie ambele tranzacții, fie niciuna. Rezervarea este eliberată după
+     * aplicare sau dacă scrierea eșuează.
+     *
+     * @param fromIban IBAN-ul contului debitat
+     * @param toIban IBAN-ul contului creditat
+     * @param amount suma transferată, pozitivă
+     * @throws InvalidTransactionException dacă suma nu este pozitivă, conturile coincid sau nu există
+     * @throws InsufficientFundsException dacă soldul contului sursă este mai mic decât suma
+     * @throws IOException dacă apare o eroare de scriere în fișier
+     */
+    public void transfer(String fromIban, String toIban, Money amount) throws IOException {
+        if (amount == null || amount.isNegative() || amount.isZero()) {
+            throw new InvalidTransactionException("Suma transferată trebuie să fie pozitivă.");
+        }
+        AccountService accounts = accountService;
+        if (accounts == null || accounts.getAccountByIban(fromIban) == null
+                || accounts.getAccountByIban(toIban) == null) {
+            throw new InvalidTransactionException("Contul sursă sau destinație nu există.");
+        }
+        if (fromIban.equals(toIban)) {
+            throw new InvalidTransactionException("Contul sursă și destinație trebuie să fie diferite.");
+        }
+        Date date = new Date();
+        Transaction debit = TransactionMapper.toData(new TransactionModel(fromIban, amount.negate(), date));
+        Transaction credit = TransactionMapper.toData(new TransactionModel(toIban, amount, date));
+        List<Transaction> legs = List.of(debit, credit);
+        int[] locked = stripeIndexesOf(legs);
+        accounts.reserveDebit(debit.getIbanId(), amount.getMinor());
+        try {
+            long stamp = checkpointLock.readLock();
+            try {
+                append(legs);
+                lockStripes(locked);
+                try {
+                    legs.forEach(this::postLocked);
+                } finally {
+                    unlockStripes(locked);
+                }
+            } finally {
+                checkpointLock.unlockRead(stamp);
+            }
+        } finally {
+            accounts.releaseDebit(debit.getIbanId(), amount.getMinor());
+        }
+    }
+
+    /**
+     * Adaugă un lot de tranzacții. Tot lotul este validat prin {@link TransactionMapper} înainte de orice scriere,
+     * deci o tranzacție invalidă respinge întregul lot. Lotul este scris în jurnal printr-un singur apel
+     * {@link StorageEngine#appendTransactions(List)} (o singură scriere secvențială și un singur fsync), ținând doar
+     * blocarea de citire a instantaneului, și abia apoi aplicat în memorie sub blocările de scriere ale tuturor benzilor
+     * atinse, luate în ordinea indicilor; cititorii acestor conturi nu așteaptă scrierea pe disc și văd fie tot lotul,
+     * fie nimic din el.
+     *
+     * @param transactions tranzacțiile de adăugat, în ordinea în care sunt înregistrate
+     * @throws InvalidTransactionException dacă una dintre tranzacții este invalidă
+     * @throws IOException dacă apare o eroare de scriere în fișier
+     */
+    public void addTransactions(Collection<TransactionModel> transactions) throws IOException {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        List<Transaction> batch = new ArrayList<>(transactions.size());
+        for (TransactionModel transaction : transactions) {
+            batch.add(TransactionMapper.toData(transaction));
+        }
+        int[] locked = stripeIndexesOf(batch);
+        long stamp = checkpointLock.readLock();
+        try {
+            append(batch);
+            lockStripes(locked);
+            try {
+                batch.forEach(this::postLocked);
+            } finally {
+                unlockStripes(locked);
+            }
+        } finally {
+            checkpointLock.unlockRead(stamp);
+        }
     }
 
     /**
-     * Returnează toate tranzacțiile încărcate în serviciu.
+     * Varianta asincronă a {@link #addTransactions(Collection)}.
+     *
+     * @param transactions tranzacțiile de adăugat, în ordinea în care sunt înregistrate
+     * @return viitorul completat după scrierea și aplicarea lotului
+     */
+    public CompletableFuture<Void> addTransactionsAsync(Collection<TransactionModel> transactions) {
+        return AsyncTasks.run(() -> addTransactions(transactions));
+    }
+
+    /**
+     * Varianta asincronă a {@link #transfer(String, String, Money)}; viitorul se completează cu excepția
+     * {@link InsufficientFundsException} sau {@link InvalidTransactionException} dacă transferul este respins.
+     *
+     * @param fromIban IBAN-ul contului debitat
+     * @param toIban IBAN-ul contului creditat
+     * @param amount suma transferată, pozitivă
+     * @return viitorul completat după scrierea și aplicarea transferului
+     */
+    public CompletableFuture<Void> transferAsync(String fromIban, String toIban, Money amount) {
+        return AsyncTasks.run(() -> transfer(fromIban, toIban, amount));
+    }
+
+    /**
+     * Copiază tranzacțiile din memorie și returnează poziția din jurnal corespunzătoare copiei.
+     * Poziția este cea urmărită de acest serviciu (încărcarea inițială și propriile scrieri), nu finalul
+     * curent al fișierului, astfel încât rândurile scrise de altcineva în jurnal rămân în coada recitită la pornire.
+     * Pe durata copierii nu se finalizează nicio adăugare, deci copia conține exact tranzacțiile
+     * serviciului până la poziția returnată. Tranzacțiile sunt copiate pe benzi, fiecare cont
+     * păstrând ordinea din registru.
+     *
+     * @param target lista în care se copiază tranzacțiile
+     * @return poziția din jurnal acoperită de copie
+     * @throws IllegalStateException dacă serviciul nu a fost creat din tranzacții încărcate, caz în care
+     *                               memoria nu conține tot jurnalul până la poziția urmărită
+     */
+    public long captureTransactions(List<Transaction> target) {
+        if (!loaded) {
+            throw new IllegalStateException("Transactions were not loaded; refusing to capture a partial snapshot.");
+        }
+        long stamp = checkpointLock.writeLock();
+        try {
+            for (Stripe stripe : stripes) {
+                stripe.lock.readLock().lock();
+                try {
+                    int size = stripe.transactions.size();
+                    for (int row = 0; row < size; row++) {
+                        target.add(stripe.transactions.toData(row));
+                    }
+                } finally {
+                    stripe.lock.readLock().unlock();
+                }
+            }
+            return journalPosition.get();
+        } finally {
+            checkpointLock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returnează toate tranzacțiile încărcate în serviciu, ca vedere doar-citire peste benzile registrului,
+     * bandă după bandă. Vederea cuprinde tranzacțiile existente la apel; cele adăugate ulterior nu apar în ea.
      *
      * @return O listă de tranzacții
      */
     public List<TransactionModel> getAllTransactions() {
-        return transactions;
+        int[] ends = new int[stripes.length];
+        int total = 0;
+        for (int i = 0; i < stripes.length; i++) {
+            Stripe stripe = stripes[i];
+            stripe.lock.readLock().lock();
+            try {
+                total += stripe.transactions.size();
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+            ends[i] = total;
+        }
+        int size = total;
+        return new AbstractList<TransactionModel>() {
+            @Override
+            public TransactionModel get(int index) {
+                if (index < 0 || index >= size) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+                }
+                int stripe = 0;
+                while (index >= ends[stripe]) {
+                    stripe++;
+                }
+                int start = stripe == 0 ? 0 : ends[stripe - 1];
+                Stripe owner = stripes[stripe];
+                owner.lock.readLock().lock();
+                try {
+                    return owner.transactions.toModel(index - start);
+                } finally {
+                    owner.lock.readLock().unlock();
+                }
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
     }
 
+
     /**
-     * Salvează toate tranzacțiile din lista internă în fișier.
+     * Aplică o tranzacție deja scrisă în jurnal: o adaugă în depozitul benzii contului, invalidează istoricul
+     * contului și actualizează soldul contului, toate sub blocarea de scriere a benzii, astfel încât cititorii
+     * contului văd fie starea dinaintea tranzacției, fie pe cea de după ea. Conturile din alte benzi nu sunt blocate.
      *
+     * @param data tranzacția scrisă în jurnal
+     */
+    private void post(Transaction data) {
+        Stripe stripe = stripeOf(data.getIbanId());
+        stripe.lock.writeLock().lock();
+        try {
+            postLocked(data);
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Începe o adăugare scrisă în jurnal în afara serviciului, de exemplu de {@link TransactionPipeline}:
+     * ia blocarea de citire a instantaneelor, astfel încât niciun instantaneu nu este capturat între
+     * scrierea în jurnal și aplicarea în memorie. Blocarea poate fi eliberată de un alt fir decât cel care a luat-o.
+     *
+     * @return marcajul blocării, transmis la {@link #endPosting(long)}
+     */
+    long beginPosting() {
+        return checkpointLock.readLock();
+    }
+
+    /**
+     * Termină o adăugare începută cu {@link #beginPosting()}.
+     *
+     * @param stamp marcajul blocării
+     */
+    void endPosting(long stamp) {
+        checkpointLock.unlockRead(stamp);
+    }
+
+    /**
+     * Scrie un lot de tranzacții deja validate în jurnal, fără a le aplica în memorie.
+     * Apelantul ține blocarea luată cu {@link #beginPosting()} până după {@link #postJournaled(List)}.
+     *
+     * @param batch tranzacțiile de scris
      * @throws IOException dacă apare o eroare de scriere în fișier
      */
+    void journal(List<Transaction> batch) throws IOException {
+        append(batch);
+    }
+
+    /**
+     * Scrie tranzacțiile în jurnal și avansează poziția din jurnal acoperită de acest serviciu.
+     * Apelantul trebuie să țină blocarea de citire pentru instantanee până după ce tranzacțiile sunt
+     * adăugate în memorie, astfel încât o copie să nu revendice rânduri pe care nu le conține.
+     *
+     * @param batch tranzacțiile de scris
+     * @throws IOException dacă apare o eroare de scriere în fișier
+     */
+    private void append(List<Transaction> batch) throws IOException {
+        long position = storage.appendTransactions(batch);
+        journalPosition.accumulateAndGet(position, Math::max);
+    }
+
+    /**
+     * Aplică în memorie un lot de tranzacții deja scrise în jurnal, sub blocările de scriere ale benzilor atinse.
+     * Rândurile sunt adăugate unul câte unul (doar dacă registrul este încărcat în memorie), dar soldul
+     * și istoricul din cache ale fiecărui cont sunt actualizate o singură dată pe lot, cu totalul tranzacțiilor contului.
+     *
+     * @param batch tranzacțiile scrise în jurnal
+     */
+    void postJournaled(List<Transaction> batch) {
+        int[] locked = stripeIndexesOf(batch);
+        lockStripes(locked);
+        try {
+            Map<Integer, Long> totals = new HashMap<>();
+            for (Transaction data : batch) {
+                if (loaded) {
+                    stripeOf(data.getIbanId()).transactions.add(data);
+                }
+                totals.merge(data.getIbanId(), data.getAmountMinor(), Money::add);
+            }
+            AccountService accounts = accountService;
+            totals.forEach((ibanId, totalMinor) -> {
+                historyCache.invalidate(ibanId);
+                if (accounts != null) {
+                    accounts.applyPosting(ibanId, totalMinor, postedMinorOf(ibanId));
+                }
+            });
+        } finally {
+            unlockStripes(locked);
+        }
+    }
+
+    /**
+     * Aplică o tranzacție deja scrisă în jurnal; apelantul ține blocarea de scriere a benzii contului.
+     * Dacă registrul nu este încărcat în memorie, interogările merg la motorul de stocare, deci tranzacția
+     * nu este adăugată în depozitul benzii.
+     *
+     * @param data tranzacția scrisă în jurnal
+     */
+    private void postLocked(Transaction data) {
+        if (loaded) {
+            stripeOf(data.getIbanId()).transactions.add(data);
+        }
+        historyCache.invalidate(data.getIbanId());
+        AccountService accounts = accountService;
+        if (accounts != null) {
+            accounts.applyPosting(data.getIbanId(), data.getAmountMinor(), postedMinorOf(data.getIbanId()));
+        }
+    }
+
+    /**
+     * Returnează totalul din registru al contului, reținut în cont ca parte inclusă în sold;
+     * apelantul ține blocarea de scriere a benzii contului.
+     *
+     * @param ibanId ID-ul IBAN-ului
+     * @return totalul în subunități sau {@link Account#UNKNOWN_POSTED} dacă registrul nu este în memorie
+     */
+    private long postedMinorOf(int ibanId) {
+        return loaded ? stripeOf(ibanId).transactions.totalMinor(ibanId) : Account.UNKNOWN_POSTED;
+    }
+
+    /**
+     * @param ibanId ID-ul IBAN-ului
+     * @return banda registrului care conține tranzacțiile contului
+     */
+    private Stripe stripeOf(int ibanId) {
+        return stripes[stripeIndexOf(ibanId)];
+    }
+
+    private int stripeIndexOf(int ibanId) {
+        return Math.floorMod(ibanId, stripes.length);
+    }
+
+    /**
+     * @param transactions tranzacțiile unui lot
+     * @return indicii benzilor atinse de lot, fără duplicate, în ordine crescătoare
+     */
+    private int[] stripeIndexesOf(List<Transaction> transactions) {
+        boolean[] touched = new boolean[stripes.length];
+        int count = 0;
+        for (Transaction transaction : transactions) {
+            int index = stripeIndexOf(transaction.getIbanId());
+            if (!touched[index]) {
+                touched[index] = true;
+                count++;
+            }
+        }
+        int[] indexes = new int[count];
+        for (int i = 0, j = 0; i < touched.length; i++) {
+            if (touched[i]) {
+                indexes[j++] = i;
+            }
+        }
+        return indexes;
+    }
+
+    /**
+     * Ia blocările de scriere ale benzilor date, în ordinea crescătoare a indicilor, astfel încât
+     * două operații pe mai multe benzi nu se pot bloca reciproc.
+     *
+     * @param indexes indicii benzilor, în ordine crescătoare
+     */
+    private void lockStripes(int[] indexes) {
+        for (int index : indexes) {
+            stripes[index].lock.writeLock().lock();
+        }
+    }
+
+    private void unlockStripes(int[] indexes) {
+        for (int i = indexes.length - 1; i >= 0; i--) {
+            stripes[indexes[i]].lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Creează modelele pentru rândurile unui cont și completează soldul de după fiecare tranzacție,
+     * din soldul curent și din totalul cumulat al fiecărui rând; apelantul ține blocarea de citire a benzii contului.
+     *
+     * @param ibanId ID-ul IBAN-ului contului
+     * @param rows rândurile contului din depozit
+     * @return modelele tranzacțiilor
+     */
+    private List<TransactionModel> toModelsWithBalances(int ibanId, int[] rows) {
+        TransactionStore transactions = stripeOf(ibanId).transactions;
+        List<TransactionModel> models = toModels(transactions, rows);
+        Money balance = currentBalance(ibanId);
+        if (balance != null) {
+            long totalMinor = transactions.totalMinor(ibanId);
+            for (int i = 0; i < rows.length; i++) {
+                long afterMinor = Money.subtract(balance.getMinor(),
+                        Money.subtract(totalMinor, transactions.runningMinorOf(rows[i])));
+                models.get(i).setBalanceAfter(Money.ofMinor(afterMinor));
+            }
+        }
+        return models;
+    }
+
+    /**
+     * Citește depozitul benzii unui cont sub blocarea de citire a benzii; selecția rândurilor și construirea
+     * rezultatului văd aceeași stare, iar cititorii aceleiași benzi nu se așteaptă între ei.
+     *
+     * @param ibanId ID-ul IBAN-ului contului
+     * @param read citirea din depozit
+     * @param <T> tipul rezultatului
+     * @return rezultatul citirii
+     */
+    private <T> T readStripe(int ibanId, Function<TransactionStore, T> read) {
+        Stripe stripe = stripeOf(ibanId);
+        stripe.lock.readLock().lock();
+        try {
+            return read.apply(stripe.transactions);
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+    }
+
+    private static List<TransactionModel> toModels(TransactionStore transactions, int[] rows) {
+        List<TransactionModel> models = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            models.add(transactions.toModel(row));
+        }
+        return models;
+    }
+
+    /**
+     * Finalizează persistența tranzacțiilor.
+     * Tranzacțiile sunt deja scrise în jurnal la adăugare, deci aici doar se eliberează fișierele motorului.
+     *
+     * @throws IOException dacă apare o eroare la închiderea fișierului
+     */
     public void saveTransactions() throws IOException {
-        TransactionRepository.saveTransactions(transactions.stream()
-                .map(TransactionMapper::toData)
-                .collect(Collectors.toList()));
+        storage.close();
     }
 }
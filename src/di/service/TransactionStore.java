@@ -0,0 +1,426 @@
+package di.service;
+
+import data.models.IbanDictionary;
+import data.models.Money;
+import data.models.Transaction;
+import data.repository.CsvCodec;
+import domain.models.TransactionModel;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Depozit de tranzacții în memorie organizat pe coloane (struct-of-arrays).
+ * Fiecare tranzacție ocupă un rând cu trei câmpuri: ID-ul IBAN-ului din {@link IbanDictionary},
+ * suma în subunități (bani, cenți) și data ca zi a epocii. Rândurile sunt păstrate de {@link TransactionColumns},
+ * pe heap sau în afara lui, după proprietatea de sistem {@code ebanking.transactionStore}
+ * ({@code heap}, {@code offheap} sau {@code mapped}; implicit {@code heap}).
+ * Sumele, filtrele și parcurgerile pe interval rulează ca bucle peste coloane, fără obiecte create pe rând;
+ * obiectele sunt create doar la cerere,
+ * prin vederile returnate de {@link #asList()} sau prin {@link Cursor}.
+ * Pentru fiecare cont se păstrează și un index cu rândurile contului ordonate după dată (iar la aceeași dată,
+ * după ordinea adăugării), astfel încât interogările pe interval, „ultimele N” și paginarea înapoi
+ * de la un cursor costă O(log k + m) pentru un cont cu k tranzacții, din care m sunt returnate.
+ * Totalul tranzacțiilor fiecărui cont este menținut incremental, iar fiecare rând păstrează totalul cumulat
+ * al contului până la el, din care se obține soldul de după tranzacție.
+ * Depozitul nu este sincronizat: apelanții îl protejează cu blocarea benzii din {@link TransactionService}
+ * care îl conține, de scriere pentru adăugări și de citire pentru interogări, astfel încât cititorii
+ * aceleiași benzi rulează în paralel.
+ */
+public class TransactionStore {
+    public static final String HEAP = "heap";
+    public static final String OFF_HEAP = "offheap";
+    public static final String MAPPED = "mapped";
+
+    private final TransactionColumns columns;
+    private AccountRows[] accounts = new AccountRows[64];
+    private long[] totalsMinor = new long[64];
+
+    /**
+     * Rândurile unui cont, ordonate după (zi, rând).
+     */
+    private static class AccountRows {
+        private int[] rows = new int[8];
+        private int size;
+    }
+
+    /**
+     * Creează un depozit gol cu coloanele configurate prin {@code ebanking.transactionStore}.
+     */
+    public TransactionStore() {
+        this(createColumns(System.getProperty("ebanking.transactionStore", HEAP)));
+    }
+
+    /**
+     * Creează un depozit gol peste coloanele date.
+     *
+     * @param columns coloanele în care se păstrează rândurile
+     */
+    public TransactionStore(TransactionColumns columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * Creează coloanele de tipul dat. Coloanele {@code mapped} folosesc un fișier temporar în directorul
+     * temporar al sistemului; dacă acesta nu poate fi creat, se folosesc buffere directe.
+     *
+     * @param type tipul coloanelor: {@code heap}, {@code offheap} sau {@code mapped}
+     * @return coloanele create
+     * @throws IllegalArgumentException dacă tipul nu este cunoscut
+     */
+    public static TransactionColumns createColumns(String type) {
+        switch (type) {
+            case HEAP:
+                return new HeapTransactionColumns();
+            case OFF_HEAP:
+                return OffHeapTransactionColumns.direct();
+            case MAPPED:
+                try {
+                    return OffHeapTransactionColumns.mapped(Paths.get(System.getProperty("java.io.tmpdir")));
+                } catch (IOException e) {
+                    System.out.println("Error creating mapped transaction store: " + e.getMessage());
+                    return OffHeapTransactionColumns.direct();
+                }
+            default:
+                throw new IllegalArgumentException("Unknown transaction store: " + type);
+        }
+    }
+
+    /**
+     * Cursor reutilizabil peste rândurile depozitului, pentru parcurgeri fără alocări pe rând.
+     * Cursorul nu este sincronizat; este destinat parcurgerilor dintr-un singur fir.
+     */
+    public class Cursor {
+        private int row = -1;
+
+        /**
+         * Mută cursorul pe rândul dat.
+         *
+         * @param row indicele rândului
+         * @return cursorul, pentru apeluri înlănțuite
+         */
+        public Cursor moveTo(int row) {
+            this.row = row;
+            return this;
+        }
+
+        /**
+         * @return ID-ul IBAN-ului de pe rândul curent
+         */
+        public int getIbanId() {
+            return columns.ibanId(row);
+        }
+
+        /**
+         * @return IBAN-ul de pe rândul curent
+         */
+        public String getIban() {
+            return IbanDictionary.ibanOf(columns.ibanId(row));
+        }
+
+        /**
+         * @return suma în subunități de pe rândul curent
+         */
+        public long getAmountMinor() {
+            return columns.amountMinor(row);
+        }
+
+        /**
+         * @return data ca zi a epocii de pe rândul curent
+         */
+        public int getEpochDay() {
+            return columns.epochDay(row);
+        }
+    }
+
+    /**
+     * @return numărul de tranzacții din depozit
+     */
+    public int size() {
+        return columns.size();
+    }
+
+    /**
+     * Adaugă o tranzacție din modelul de date.
+     *
+     * @param transaction tranzacția de adăugat
+     */
+    public void add(Transaction transaction) {
+        add(transaction.getIbanId(), transaction.getAmountMinor(), CsvCodec.epochDayOf(transaction.getDate()));
+    }
+
+    /**
+     * Adaugă o tranzacție din modelul de domeniu.
+     *
+     * @param transaction tranzacția de adăugat
+     */
+    public void add(TransactionModel transaction) {
+        add(transaction.getIbanId(), transaction.getAmountMinor(), CsvCodec.epochDayOf(transaction.getDate()));
+    }
+
+    /**
+     * Adaugă un rând nou în depozit.
+     *
+     * @param ibanId ID-ul IBAN-ului
+     * @param amountMinor suma în subunități
+     * @param epochDay data ca zi a epocii
+     */
+    public void add(int ibanId, long amountMinor, int epochDay) {
+        long runningMinor = amountMinor;
+        if (ibanId >= 0) {
+            if (ibanId >= totalsMinor.length) {
+                totalsMinor = Arrays.copyOf(totalsMinor, Math.max(totalsMinor.length * 2, ibanId + 1));
+            }
+            runningMinor = totalsMinor[ibanId] = Money.add(totalsMinor[ibanId], amountMinor);
+        }
+        columns.append(ibanId, amountMinor, epochDay, runningMinor);
+        indexRow(ibanId, columns.size() - 1);
+    }
+
+    /**
+     * Returnează totalul tranzacțiilor unui cont, menținut incremental la fiecare adăugare.
+     *
+     * @param ibanId ID-ul IBAN-ului
+     * @return totalul în subunități
+     */
+    public long totalMinor(int ibanId) {
+        return ibanId >= 0 && ibanId < totalsMinor.length ? totalsMinor[ibanId] : 0;
+    }
+
+    /**
+     * Returnează totalul tranzacțiilor contului de pe rând, până la rând inclusiv, în ordinea adăugării.
+     *
+     * @param row indicele rândului
+     * @return totalul cumulat în subunități
+     */
+    public long runningMinorOf(int row) {
+        return columns.runningMinor(row);
+    }
+
+    /**
+     * Adaugă rândul în indexul contului. Tranzacțiile sosesc de obicei în ordinea datelor, deci cazul
+     * obișnuit este o adăugare la final; o tranzacție mai veche este inserată la poziția ei.
+     *
+     * @param ibanId ID-ul IBAN-ului
+     * @param row indicele rândului nou
+     */
+    private void indexRow(int ibanId, int row) {
+        if (ibanId < 0) {
+            return;
+        }
+        if (ibanId >= accounts.length) {
+            accounts = Arrays.copyOf(accounts, Math.max(accounts.length * 2, ibanId + 1));
+        }
+        AccountRows account = accounts[ibanId];
+        if (account == null) {
+            account = accounts[ibanId] = new AccountRows();
+        }
+        if (account.size == account.rows.length) {
+            account.rows = Arrays.copyOf(account.rows, account.size * 2);
+        }
+        int position = upperBound(account, columns.epochDay(row));
+        System.arraycopy(account.rows, position, account.rows, position + 1, account.size - position);
+        account.rows[position] = row;
+        account.size++;
+    }
+
+    private AccountRows accountRows(int ibanId) {
+        return ibanId >= 0 && ibanId < accounts.length ? accounts[ibanId] : null;
+    }
+
+    /**
+     * @return prima poziție din indexul contului cu data mai mare sau egală cu {@code day}
+     */
+    private int lowerBound(AccountRows account, int day) {
+        int low = 0;
+        int high = account.size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (columns.epochDay(account.rows[mid]) < day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return prima poziție din indexul contului cu data strict mai mare decât {@code day}
+     */
+    private int upperBound(AccountRows account, int day) {
+        int low = 0;
+        int high = account.size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (columns.epochDay(account.rows[mid]) <= day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Calculează suma tranzacțiilor unui cont într-un interval de zile, folosind indexul contului.
+     *
+     * @param ibanId ID-ul IBAN-ului
+     * @param fromDay prima zi (inclusiv)
+     * @param toDay ultima zi (inclusiv)
+     * @return suma în subunități
+     */
+    public long sumMinor(int ibanId, int fromDay, int toDay) {
+        AccountRows account = accountRows(ibanId);
+        if (account == null || fromDay > toDay) {
+            return 0;
+        }
+        long sum = 0;
+        for (int i = lowerBound(account, fromDay), end = upperBound(account, toDay); i < end; i++) {
+            sum = Money.add(sum, columns.amountMinor(account.rows[i]));
+        }
+        return sum;
+    }
+
+    /**
+     * Returnează rândurile unui cont, în ordinea adăugării.
+     *
+     * @param ibanId ID-ul IBAN-ului
+     * @return indicii rândurilor contului
+     */
+    public int[] rowsOf(int ibanId) {
+        AccountRows account = accountRows(ibanId);
+        if (account == null) {
+            return new int[0];
+        }
+        int[] rows = Arrays.copyOf(account.rows, account.size);
+        Arrays.sort(rows);
+        return rows;
+    }
+
+    /**
+     * Returnează rândurile unui cont dintr-un interval de zile.
+     *
+     * @param ibanId ID-ul IBAN-ului
+     * @param fromDay prima zi (inclusiv)
+     * @param toDay ultima zi (inclusiv)
+     * @return indicii rândurilor, ordonați după dată
+     */
+    public int[] rangeRowsOf(int ibanId, int fromDay, int toDay) {
+        AccountRows account = accountRows(ibanId);
+        if (account == null || fromDay > toDay) {
+            return new int[0];
+        }
+        return Arrays.copyOfRange(account.rows, lowerBound(account, fromDay), upperBound(account, toDay));
+    }
+
+    /**
+     * Returnează cele mai recente rânduri ale unui cont, după dată.
+     *
+     * @param ibanId ID-ul IBAN-ului
+     * @param limit numărul maxim de rânduri
+     * @return indicii rândurilor, ordonați după dată
+     */
+    public int[] latestRowsOf(int ibanId, int limit) {
+        AccountRows account = accountRows(ibanId);
+        if (account == null) {
+            return new int[0];
+        }
+        return Arrays.copyOfRange(account.rows, Math.max(0, account.size - Math.max(0, limit)), account.size);
+    }
+
+    /**
+     * Returnează rândurile unui cont aflate strict înaintea poziției (zi, rând) în ordinea indexului,
+     * cel mult {@code limit}, cele mai apropiate de poziție.
+     *
+     * @param ibanId ID-ul IBAN-ului
+     * @param day ziua poziției
+     * @param row rândul poziției, folosit la egalitate de zi
+     * @param limit numărul maxim de rânduri
+     * @return indicii rândurilor, ordonați după dată
+     */
+    public int[] rowsBefore(int ibanId, int day, int row, int limit) {
+        AccountRows account = accountRows(ibanId);
+        if (account == null) {
+            return new int[0];
+        }
+        int low = lowerBound(account, day);
+        int high = upperBound(account, day);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (account.rows[mid] < row) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return Arrays.copyOfRange(account.rows, Math.max(0, low - Math.max(0, limit)), low);
+    }
+
+    /**
+     * Returnează ziua epocii a unui rând.
+     *
+     * @param row indicele rândului
+     * @return data rândului ca zi a epocii
+     */
+    public int epochDayOf(int row) {
+        return columns.epochDay(row);
+    }
+
+    /**
+     * Creează un cursor reutilizabil peste depozit.
+     *
+     * @return cursorul nou, nepoziționat
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Creează modelul de domeniu pentru un rând.
+     *
+     * @param row indicele rândului
+     * @return tranzacția de pe rând
+     */
+    public TransactionModel toModel(int row) {
+        return new TransactionModel(columns.ibanId(row), Money.ofMinor(columns.amountMinor(row)),
+                CsvCodec.toDate(columns.epochDay(row)));
+    }
+
+    /**
+     * Creează modelul de date pentru un rând.
+     *
+     * @param row indicele rândului
+     * @return tranzacția de pe rând
+     */
+    public Transaction toData(int row) {
+        return new Transaction(columns.ibanId(row), Money.ofMinor(columns.amountMinor(row)),
+                CsvCodec.toDate(columns.epochDay(row)));
+    }
+
+    /**
+     * Returnează o vedere doar-citire a depozitului ca listă de modele.
+     * Obiectele sunt create la fiecare acces, deci vederea nu ocupă memorie suplimentară.
+     *
+     * @return vederea de tip listă
+     */
+    public List<TransactionModel> asList() {
+        return new AbstractList<TransactionModel>() {
+            @Override
+            public TransactionModel get(int index) {
+                if (index < 0 || index >= size()) {
+                    throw new IndexOutOfBoundsException("Index: " + index);
+                }
+                return toModel(index);
+            }
+
+            @Override
+            public int size() {
+                return TransactionStore.this.size();
+            }
+        };
+    }
+}
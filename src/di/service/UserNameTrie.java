@@ -0,0 +1,99 @@
+package di.service;
+
+import domain.models.UserModel;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Arbore de prefixe (trie) peste numele utilizatorilor, folosit pentru căutarea pe măsură ce se tastează.
+ * Fiecare utilizator este inserat după prenume și după numele de familie, normalizate cu {@link #normalize(String)}.
+ * O căutare parcurge doar nodurile prefixului și subarborele lui, până la numărul cerut de rezultate,
+ * deci nu depinde de numărul total de utilizatori.
+ * Clasa nu este sincronizată; accesul este serializat de {@link UserService}.
+ */
+public class UserNameTrie {
+    private final Node root = new Node();
+
+    private static class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private final Map<String, UserModel> users = new LinkedHashMap<>();
+    }
+
+    /**
+     * Normalizează un nume pentru comparare: fără spații la capete și cu litere mici.
+     *
+     * @param name numele de normalizat
+     * @return numele normalizat sau șirul gol pentru null
+     */
+    public static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase();
+    }
+
+    /**
+     * Inserează utilizatorul după prenume și după numele de familie.
+     *
+     * @param user utilizatorul de inserat
+     */
+    public void add(UserModel user) {
+        nodeFor(normalize(user.getFirstName()), true).users.put(user.getId(), user);
+        nodeFor(normalize(user.getLastName()), true).users.put(user.getId(), user);
+    }
+
+    /**
+     * Scoate utilizatorul din arbore. Nodurile rămase goale nu sunt eliberate.
+     *
+     * @param user utilizatorul de scos
+     */
+    public void remove(UserModel user) {
+        for (String name : new String[]{normalize(user.getFirstName()), normalize(user.getLastName())}) {
+            Node node = nodeFor(name, false);
+            if (node != null) {
+                node.users.remove(user.getId());
+            }
+        }
+    }
+
+    /**
+     * Returnează utilizatorii al căror prenume sau nume de familie începe cu prefixul dat.
+     *
+     * @param prefix prefixul căutat; este normalizat înainte de căutare
+     * @param limit numărul maxim de rezultate
+     * @return utilizatorii găsiți, fără duplicate, cel mult {@code limit}
+     */
+    public List<UserModel> findByPrefix(String prefix, int limit) {
+        Map<String, UserModel> found = new LinkedHashMap<>();
+        Node node = nodeFor(normalize(prefix), false);
+        if (node != null && limit > 0) {
+            collect(node, found, limit);
+        }
+        return new ArrayList<>(found.values());
+    }
+
+    private void collect(Node node, Map<String, UserModel> found, int limit) {
+        for (UserModel user : node.users.values()) {
+            if (found.size() >= limit) {
+                return;
+            }
+            found.putIfAbsent(user.getId(), user);
+        }
+        for (Node child : node.children.values()) {
+            if (found.size() >= limit) {
+                return;
+            }
+            collect(child, found, limit);
+        }
+    }
+
+    private Node nodeFor(String key, boolean create) {
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            char c = key.charAt(i);
+            node = create ? node.children.computeIfAbsent(c, k -> new Node()) : node.children.get(c);
+        }
+        return node;
+    }
+}
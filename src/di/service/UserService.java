@@ -2,71 +2,198 @@ package di.service;
 
 
 import data.models.User;
-import data.repository.UserRepository;
+import data.repository.StorageEngine;
+import data.repository.StorageEngines;
 import domain.exceptions.ExistingUserException;
-import domain.exceptions.UserNameException;
 import domain.mappers.UserMapper;
 import domain.models.UserModel;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
  * Serviciu pentru gestionarea operațiunilor asupra utilizatorilor.
  * Oferă metode pentru încărcarea, salvarea și adăugarea utilizatorilor.
+ * Utilizatorii sunt păstrați într-un index după ID, într-un index după numele complet normalizat
+ * (prenume și nume de familie, fără spații la capete și cu litere mici) și într-un {@link UserNameTrie}
+ * pentru căutarea după prefix, astfel încât autentificarea și verificarea ID-urilor duplicate
+ * nu parcurg toți utilizatorii.
+ * Metodele {@code ...Async} rulează operația corespunzătoare pe un fir virtual, prin {@link AsyncTasks}.
  */
 public class UserService {
-    private List<UserModel> users = new ArrayList<>();
+    private final StorageEngine storage;
+    private final Map<String, UserModel> byId = new LinkedHashMap<>();
+    private final Map<String, Map<String, UserModel>> byName = new HashMap<>();
+    private final UserNameTrie names = new UserNameTrie();
+    private boolean loaded;
 
     /**
-     * Încarcă utilizatorii din fișierul specificat și îi adaugă în lista internă.
+     * Creează un serviciu pe motorul de stocare configurat; utilizatorii sunt încărcați
+     * la primul apel care are nevoie de ei.
+     */
+    public UserService() {
+        this(StorageEngines.getDefault());
+    }
+
+    /**
+     * Creează un serviciu gol pe motorul de stocare dat; utilizatorii sunt încărcați
+     * la primul apel care are nevoie de ei.
+     *
+     * @param storage motorul de stocare
+     */
+    public UserService(StorageEngine storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * Creează un serviciu pornind de la utilizatori deja încărcați.
+     *
+     * @param storage motorul de stocare
+     * @param listOfUsers Utilizatorii încărcați din fișier
+     */
+    public UserService(StorageEngine storage, List<User> listOfUsers) {
+        this.storage = storage;
+        listOfUsers.forEach(user -> index(UserMapper.toModel(user)));
+        loaded = true;
+    }
+
+    /**
+     * Încarcă utilizatorii din fișier la primul apel și îi adaugă în indexuri.
      *
      * @throws IOException dacă apare o eroare de citire a fișierului
      */
-    private void loadUsersFromFile() throws IOException {
-        List<User> listOfUsers = UserRepository.loadUsers();
-        users.addAll(listOfUsers.stream().map(UserMapper::toModel).collect(Collectors.toList()));
+    private void ensureLoaded() throws IOException {
+        if (!loaded) {
+            storage.loadUsers().forEach(user -> index(UserMapper.toModel(user)));
+            loaded = true;
+        }
     }
+
     /**
      * Returnează toți utilizatorii încărcați în serviciu.
      *
      * @return O listă de utilizatori
      * @throws IOException dacă apare o eroare de citire a fișierului
      */
+    public synchronized List<UserModel> getAllUsers() throws IOException {
+        ensureLoaded();
+        return new ArrayList<>(byId.values());
+    }
+
+    /**
+     * Returnează utilizatorul cu ID-ul dat.
+     *
+     * @param id ID-ul utilizatorului
+     * @return utilizatorul sau null dacă nu există
+     * @throws IOException dacă apare o eroare de citire a fișierului
+     */
+    public synchronized UserModel getUserById(String id) throws IOException {
+        ensureLoaded();
+        return byId.get(id);
+    }
 
-    public List<UserModel> getAllUsers() throws IOException {
-        loadUsersFromFile();
-        return users;
+    /**
+     * Caută utilizatorul cu prenumele și numele de familie date.
+     * Numele sunt comparate după normalizare, deci spațiile de la capete și literele mari nu contează.
+     *
+     * @param firstName prenumele utilizatorului
+     * @param lastName numele de familie al utilizatorului
+     * @return primul utilizator găsit sau null dacă nu există
+     * @throws IOException dacă apare o eroare de citire a fișierului
+     */
+    public synchronized UserModel findByName(String firstName, String lastName) throws IOException {
+        ensureLoaded();
+        Map<String, UserModel> matches = byName.get(nameKey(firstName, lastName));
+        return matches == null || matches.isEmpty() ? null : matches.values().iterator().next();
     }
+
     /**
-     * Adaugă un utilizator nou în lista de utilizatori, dacă acesta nu există deja.
+     * Returnează utilizatorii al căror prenume sau nume de familie începe cu prefixul dat,
+     * pentru sugestii în timpul tastării.
+     *
+     * @param prefix prefixul căutat
+     * @param limit numărul maxim de rezultate
+     * @return utilizatorii găsiți, cel mult {@code limit}
+     * @throws IOException dacă apare o eroare de citire a fișierului
+     */
+    public synchronized List<UserModel> findByNamePrefix(String prefix, int limit) throws IOException {
+        ensureLoaded();
+        return names.findByPrefix(prefix, limit);
+    }
+
+    /**
+     * Varianta asincronă a {@link #findByName(String, String)}.
+     *
+     * @param firstName prenumele utilizatorului
+     * @param lastName numele de familie al utilizatorului
+     * @return viitorul completat cu primul utilizator găsit sau cu null dacă nu există
+     */
+    public CompletableFuture<UserModel> findByNameAsync(String firstName, String lastName) {
+        return AsyncTasks.supply(() -> findByName(firstName, lastName));
+    }
+
+    /**
+     * Adaugă un utilizator nou, dacă nu există deja unul cu același ID, și salvează utilizatorii.
      *
-     * @param usersSet Setul de utilizatori unde se va adăuga noul utilizator
      * @param user Utilizatorul de adăugat
      * @throws IOException dacă apare o eroare de scriere în fișier
-     * @throws ExistingUserException dacă utilizatorul există deja în set
+     * @throws ExistingUserException dacă există deja un utilizator cu același ID
      */
-
-    public void addUser(Set<UserModel> usersSet, User user) throws IOException {
-        boolean userExists=usersSet.stream().anyMatch(existingUser->
-                user.getId().equals(existingUser.getId()));
-        if(userExists){
+    public synchronized void addUser(User user) throws IOException {
+        ensureLoaded();
+        if (byId.containsKey(user.getId())) {
             throw new ExistingUserException("User with ID " + user.getId() + " already exists.");
         }
-        usersSet.add(UserMapper.toModel(user));
-        UserRepository.saveUsers(usersSet.stream().map(UserMapper::toData).collect(Collectors.toList()));
+        index(UserMapper.toModel(user));
+        saveUsers();
     }
+
     /**
-     * Salvează toți utilizatorii din lista internă în fișier.
+     * Varianta asincronă a {@link #addUser(User)}; viitorul se completează cu excepția
+     * {@link ExistingUserException} dacă ID-ul există deja.
+     *
+     * @param user Utilizatorul de adăugat
+     * @return viitorul completat după salvarea utilizatorilor
+     */
+    public CompletableFuture<Void> addUserAsync(User user) {
+        return AsyncTasks.run(() -> addUser(user));
+    }
+
+    /**
+     * Salvează toți utilizatorii din serviciu în fișier.
      *
      * @throws IOException dacă apare o eroare de scriere în fișier
      */
+    public synchronized void saveUsers() throws IOException {
+        storage.saveUsers(byId.values().stream().map(UserMapper::toData).collect(Collectors.toList()));
+    }
 
-    public void saveUsers() throws IOException {
-        UserRepository.saveUsers(users.stream().map(UserMapper::toData).collect(Collectors.toList()));
+    /**
+     * Adaugă utilizatorul în toate indexurile, înlocuind un utilizator existent cu același ID.
+     *
+     * @param user utilizatorul de indexat
+     */
+    private void index(UserModel user) {
+        UserModel previous = byId.put(user.getId(), user);
+        if (previous != null) {
+            Map<String, UserModel> matches = byName.get(nameKey(previous.getFirstName(), previous.getLastName()));
+            if (matches != null) {
+                matches.remove(previous.getId());
+            }
+            names.remove(previous);
+        }
+        byName.computeIfAbsent(nameKey(user.getFirstName(), user.getLastName()), key -> new LinkedHashMap<>())
+                .put(user.getId(), user);
+        names.add(user);
     }
-}
 
+    private static String nameKey(String firstName, String lastName) {
+        return UserNameTrie.normalize(firstName) + '\0' + UserNameTrie.normalize(lastName);
+    }
+}
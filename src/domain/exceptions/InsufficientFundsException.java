@@ -0,0 +1,18 @@
+package domain.exceptions;
+
+/**
+ * Excepție aruncată atunci când un transfer ar lăsa contul sursă cu sold negativ.
+ * Această excepție extinde {@link RuntimeException}, permițându-i să fie aruncată la rulare fără a fi necesar
+ * să fie declarată explicit în semnăturile metodelor.
+ */
+public class InsufficientFundsException extends RuntimeException {
+
+    /**
+     * Construieste o nouă excepție InsufficientFundsException cu mesajul detaliat specificat.
+     *
+     * @param message mesajul detaliat, care oferă informații suplimentare despre excepție
+     */
+    public InsufficientFundsException(String message) {
+        super(message);
+    }
+}
@@ -15,7 +15,8 @@ public class AccountMapper {
      * @return obiectul de tip {@link AccountModel} rezultat din conversie
      */
     public static AccountModel toModel(Account account) {
-        return new AccountModel(account.getUserId(), account.getIban(), account.getType(), account.getBalance());
+        return new AccountModel(account.getUserId(), account.getIbanId(), account.getType(), account.getBalance(),
+                account.getPostedMinor());
     }
 
     /**
@@ -25,6 +26,7 @@ public class AccountMapper {
      * @return obiectul de tip {@link Account} rezultat din conversie
      */
     public static Account toData(AccountModel account) {
-        return new Account(account.getUserId(), account.getIban(), account.getType(), account.getBalance());
+        return new Account(account.getUserId(), account.getIbanId(), account.getType(), account.getBalance(),
+                account.getPostedMinor());
     }
 }
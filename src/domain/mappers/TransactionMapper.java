@@ -1,5 +1,6 @@
 package domain.mappers;
 
+import data.models.IbanDictionary;
 import data.models.Transaction;
 import domain.exceptions.InvalidTransactionException;
 import domain.models.TransactionModel;
@@ -18,13 +19,8 @@ public class TransactionMapper {
      * @throws InvalidTransactionException dacă IBAN-ul este gol sau null, sau dacă suma tranzacției este 0
      */
     public static TransactionModel toModel(Transaction transaction) {
-        if (transaction.getIban() == null || transaction.getIban().isEmpty()) {
-            throw new InvalidTransactionException("IBAN-ul nu poate fi gol sau null.");
-        }
-        if (transaction.getAmount() == 0) {
-            throw new InvalidTransactionException("Suma tranzacției nu poate fi 0!");
-        }
-        return new TransactionModel(transaction.getIban(), transaction.getAmount(), transaction.getDate());
+        validate(transaction);
+        return new TransactionModel(transaction.getIbanId(), transaction.getAmount(), transaction.getDate());
     }
 
     /**
@@ -36,12 +32,38 @@ public class TransactionMapper {
      * @throws InvalidTransactionException dacă IBAN-ul este gol sau null, sau dacă suma tranzacției este 0
      */
     public static Transaction toData(TransactionModel transaction) {
-        if (transaction.getIban() == null || transaction.getIban().isEmpty()) {
+        if (transaction.getIbanId() == IbanDictionary.NO_IBAN || transaction.getIban().isEmpty()) {
+            throw new InvalidTransactionException("IBAN-ul nu poate fi gol sau null.");
+        }
+        if (transaction.getAmountMinor() == 0) {
+            throw new InvalidTransactionException("Suma tranzacției nu poate fi 0!");
+        }
+        return new Transaction(transaction.getIbanId(), transaction.getAmount(), transaction.getDate());
+    }
+
+    /**
+     * Verifică o tranzacție fără a o converti, de exemplu înainte de a fi copiată într-un depozit pe coloane.
+     *
+     * @param transaction obiectul de tip {@link Transaction} ce trebuie verificat
+     * @throws InvalidTransactionException dacă IBAN-ul este gol sau null, sau dacă suma tranzacției este 0
+     */
+    public static void validate(Transaction transaction) {
+        validate(transaction.getIbanId(), transaction.getAmountMinor());
+    }
+
+    /**
+     * Verifică o tranzacție dată prin câmpurile ei, fără obiecte intermediare.
+     *
+     * @param ibanId ID-ul IBAN-ului tranzacției
+     * @param amountMinor suma tranzacției în subunități
+     * @throws InvalidTransactionException dacă IBAN-ul este gol sau null, sau dacă suma tranzacției este 0
+     */
+    public static void validate(int ibanId, long amountMinor) {
+        if (ibanId == IbanDictionary.NO_IBAN || IbanDictionary.ibanOf(ibanId).isEmpty()) {
             throw new InvalidTransactionException("IBAN-ul nu poate fi gol sau null.");
         }
-        if (transaction.getAmount() == 0) {
+        if (amountMinor == 0) {
             throw new InvalidTransactionException("Suma tranzacției nu poate fi 0!");
         }
-        return new Transaction(transaction.getIban(), transaction.getAmount(), transaction.getDate());
     }
 }
@@ -1,15 +1,20 @@
 package domain.models;
 
+import data.models.Account;
+import data.models.IbanDictionary;
+import data.models.Money;
+
 /**
  * Model de date pentru un cont bancar.
  * Această clasă reprezintă un cont bancar cu detalii precum ID-ul utilizatorului,
- * IBAN-ul, tipul contului și soldul.
+ * IBAN-ul, tipul contului și soldul, împreună cu totalul tranzacțiilor din registru incluse în sold.
  */
 public class AccountModel {
     private String userId;
-    private String iban;
+    private int ibanId;
     private String type;
-    private double balance;
+    private long balanceMinor;
+    private long postedMinor = Account.UNKNOWN_POSTED;
 
     /**
      * Construieste un obiect AccountModel cu detalii despre contul bancar.
@@ -19,11 +24,40 @@ public class AccountModel {
      * @param type tipul contului (de exemplu, "economii", "curent")
      * @param balance soldul contului
      */
-    public AccountModel(String userId, String iban, String type, double balance) {
+    public AccountModel(String userId, String iban, String type, Money balance) {
+        this.userId = userId;
+        this.ibanId = IbanDictionary.idOf(iban);
+        this.type = type;
+        this.balanceMinor = balance.getMinor();
+    }
+
+    /**
+     * Construieste un obiect AccountModel pentru un IBAN deja înregistrat în {@link IbanDictionary}.
+     *
+     * @param userId ID-ul utilizatorului asociat contului
+     * @param ibanId ID-ul IBAN-ului contului bancar
+     * @param type tipul contului (de exemplu, "economii", "curent")
+     * @param balance soldul contului
+     */
+    public AccountModel(String userId, int ibanId, String type, Money balance) {
         this.userId = userId;
-        this.iban = iban;
+        this.ibanId = ibanId;
         this.type = type;
-        this.balance = balance;
+        this.balanceMinor = balance.getMinor();
+    }
+
+    /**
+     * Construieste un obiect AccountModel care știe ce parte din registru este inclusă în sold.
+     *
+     * @param userId ID-ul utilizatorului asociat contului
+     * @param ibanId ID-ul IBAN-ului contului bancar
+     * @param type tipul contului (de exemplu, "economii", "curent")
+     * @param balance soldul contului
+     * @param postedMinor totalul tranzacțiilor din registru incluse în sold sau {@link Account#UNKNOWN_POSTED}
+     */
+    public AccountModel(String userId, int ibanId, String type, Money balance, long postedMinor) {
+        this(userId, ibanId, type, balance);
+        this.postedMinor = postedMinor;
     }
 
     /**
@@ -41,7 +75,16 @@ public class AccountModel {
      * @return IBAN-ul contului
      */
     public String getIban() {
-        return iban;
+        return IbanDictionary.ibanOf(ibanId);
+    }
+
+    /**
+     * Obține ID-ul IBAN-ului din dicționarul global, folosit pentru comparații rapide.
+     *
+     * @return ID-ul IBAN-ului în {@link IbanDictionary}
+     */
+    public int getIbanId() {
+        return ibanId;
     }
 
     /**
@@ -58,8 +101,48 @@ public class AccountModel {
      *
      * @return soldul contului
      */
-    public double getBalance() {
-        return balance;
+    public Money getBalance() {
+        return Money.ofMinor(balanceMinor);
+    }
+
+    /**
+     * Obține soldul contului în subunități, fără a crea un obiect {@link Money}.
+     *
+     * @return soldul contului în subunități
+     */
+    public long getBalanceMinor() {
+        return balanceMinor;
+    }
+
+    /**
+     * Obține totalul tranzacțiilor din registru incluse în sold.
+     *
+     * @return totalul în subunități sau {@link Account#UNKNOWN_POSTED} dacă nu este cunoscut
+     */
+    public long getPostedMinor() {
+        return postedMinor;
+    }
+
+    /**
+     * Două conturi sunt egale dacă au același IBAN, indiferent de sold sau tip,
+     * deoarece IBAN-ul identifică în mod unic contul.
+     *
+     * @param o obiectul comparat
+     * @return true dacă obiectul este un cont cu același IBAN
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return ibanId == ((AccountModel) o).ibanId;
+    }
+
+    /**
+     * @return codul de dispersie calculat din IBAN
+     */
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(ibanId);
     }
 
     /**
@@ -71,9 +154,9 @@ public class AccountModel {
     public String toString() {
         return "AccountModel{" +
                 "userId='" + userId + '\'' +
-                ", iban='" + iban + '\'' +
+                ", iban='" + getIban() + '\'' +
                 ", type='" + type + '\'' +
-                ", balance=" + balance +
+                ", balance=" + getBalance() +
                 '}';
     }
 }
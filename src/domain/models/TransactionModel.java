@@ -1,5 +1,8 @@
 package domain.models;
 
+import data.models.IbanDictionary;
+import data.models.Money;
+
 import java.util.Date;
 
 /**
@@ -8,9 +11,10 @@ import java.util.Date;
  * suma tranzacționată și data tranzacției.
  */
 public class TransactionModel {
-    private String iban;
-    private double amount;
+    private int ibanId;
+    private long amountMinor;
     private Date date;
+    private Money balanceAfter;
 
     /**
      * Construieste un obiect TransactionModel cu detalii despre tranzacție.
@@ -19,9 +23,22 @@ public class TransactionModel {
      * @param amount suma tranzacției
      * @param date data la care a avut loc tranzacția
      */
-    public TransactionModel(String iban, double amount, Date date) {
-        this.iban = iban;
-        this.amount = amount;
+    public TransactionModel(String iban, Money amount, Date date) {
+        this.ibanId = IbanDictionary.idOf(iban);
+        this.amountMinor = amount.getMinor();
+        this.date = date;
+    }
+
+    /**
+     * Construieste un obiect TransactionModel pentru un IBAN deja înregistrat în {@link IbanDictionary}.
+     *
+     * @param ibanId ID-ul IBAN-ului contului pentru tranzacție
+     * @param amount suma tranzacției
+     * @param date data la care a avut loc tranzacția
+     */
+    public TransactionModel(int ibanId, Money amount, Date date) {
+        this.ibanId = ibanId;
+        this.amountMinor = amount.getMinor();
         this.date = date;
     }
 
@@ -31,7 +48,16 @@ public class TransactionModel {
      * @return IBAN-ul tranzacției
      */
     public String getIban() {
-        return iban;
+        return IbanDictionary.ibanOf(ibanId);
+    }
+
+    /**
+     * Obține ID-ul IBAN-ului din dicționarul global, folosit pentru comparații rapide.
+     *
+     * @return ID-ul IBAN-ului în {@link IbanDictionary}
+     */
+    public int getIbanId() {
+        return ibanId;
     }
 
     /**
@@ -39,8 +65,17 @@ public class TransactionModel {
      *
      * @return suma tranzacției
      */
-    public double getAmount() {
-        return amount;
+    public Money getAmount() {
+        return Money.ofMinor(amountMinor);
+    }
+
+    /**
+     * Obține suma tranzacției în subunități, fără a crea un obiect {@link Money}.
+     *
+     * @return suma tranzacției în subunități
+     */
+    public long getAmountMinor() {
+        return amountMinor;
     }
 
     /**
@@ -52,13 +87,22 @@ public class TransactionModel {
         return date;
     }
 
+    /**
+     * Obține soldul contului imediat după această tranzacție, dacă este cunoscut.
+     *
+     * @return soldul după tranzacție sau null dacă nu a fost calculat
+     */
+    public Money getBalanceAfter() {
+        return balanceAfter;
+    }
+
     /**
      * Setează IBAN-ul tranzacției.
      *
      * @param iban IBAN-ul tranzacției
      */
     public void setIban(String iban) {
-        this.iban = iban;
+        this.ibanId = IbanDictionary.idOf(iban);
     }
 
     /**
@@ -66,8 +110,8 @@ public class TransactionModel {
      *
      * @param amount suma tranzacției
      */
-    public void setAmount(double amount) {
-        this.amount = amount;
+    public void setAmount(Money amount) {
+        this.amountMinor = amount.getMinor();
     }
 
     /**
@@ -79,6 +123,15 @@ public class TransactionModel {
         this.date = date;
     }
 
+    /**
+     * Setează soldul contului imediat după această tranzacție.
+     *
+     * @param balanceAfter soldul după tranzacție sau null dacă nu este cunoscut
+     */
+    public void setBalanceAfter(Money balanceAfter) {
+        this.balanceAfter = balanceAfter;
+    }
+
     /**
      * Returnează o reprezentare textuală a obiectului TransactionModel.
      *
@@ -87,8 +140,8 @@ public class TransactionModel {
     @Override
     public String toString() {
         return "TransactionModel{" +
-                "iban='" + iban + '\'' +
-                ", amount=" + amount +
+                "iban='" + getIban() + '\'' +
+                ", amount=" + getAmount() +
                 ", date=" + date +
                 '}';
     }
@@ -1,8 +1,11 @@
 package presentation;
 
+import di.ApplicationContext;
 import di.service.AccountService;
+import di.service.AsyncTasks;
 import domain.models.AccountModel;
 import domain.models.UserModel;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.scene.control.*;
 import javafx.scene.layout.HBox;
@@ -16,11 +19,14 @@ import java.util.List;
  * Clasa care prezintă detaliile conturilor unui utilizator.
  * Permite vizualizarea conturilor unui utilizator și efectuarea unor acțiuni asupra acestora,
  * cum ar fi vizualizarea tranzacțiilor sau ștergerea unui cont.
+ * Conturile sunt citite și șterse în fundal; până la terminare se afișează un mesaj de încărcare,
+ * iar rezultatul este afișat pe firul JavaFX prin {@link Platform#runLater(Runnable)}.
  */
 public class AccountDetails {
     private Stage primaryStage;
     private VBox layout;
     private Label resultLabel;
+    private ApplicationContext context;
     private AccountService accountService;
     private VBox accountList;
 
@@ -28,11 +34,13 @@ public class AccountDetails {
      * Construieste un obiect AccountDetails pentru a vizualiza conturile unui utilizator.
      *
      * @param primaryStage fereastra principală a aplicației
+     * @param context containerul cu serviciile partajate ale aplicației
      * @param user utilizatorul pentru care vor fi afișate conturile
      */
-    public AccountDetails(Stage primaryStage, UserModel user) {
+    public AccountDetails(Stage primaryStage, ApplicationContext context, UserModel user) {
         this.primaryStage = primaryStage;
-        this.accountService = new AccountService();
+        this.context = context;
+        this.accountService = context.getAccountService();
         layout = new VBox(10);
         layout.setPadding(new Insets(20));
         layout.setStyle("-fx-background-color: #f0f0f0;");
@@ -65,44 +73,57 @@ public class AccountDetails {
     }
 
     /**
-     * Încarcă lista de conturi pentru un utilizator.
+     * Încarcă în fundal lista de conturi pentru un utilizator, afișând între timp un mesaj de încărcare.
      * Dacă nu există conturi, va afișa un mesaj corespunzător.
      *
      * @param user utilizatorul pentru care se vor încărca conturile
      */
     private void loadAccounts(UserModel user) {
-        accountList.getChildren().clear();
-        accountList.getChildren().add(resultLabel);
-
-        try {
-            List<AccountModel> accounts = accountService.getAccountsByUserId(user.getId());
-            if (accounts.isEmpty()) {
-                Label noAccountsLabel = new Label("No accounts found for this user!");
-                noAccountsLabel.setStyle("-fx-text-fill: #666; -fx-font-size: 14px; -fx-font-style: italic;");
-                accountList.getChildren().add(noAccountsLabel);
+        Label loadingLabel = new Label("Loading accounts...");
+        loadingLabel.setStyle("-fx-text-fill: #666; -fx-font-size: 14px; -fx-font-style: italic;");
+        accountList.getChildren().setAll(resultLabel, loadingLabel);
+
+        accountService.getAccountsByUserIdAsync(user.getId()).whenComplete((accounts, error) -> Platform.runLater(() -> {
+            accountList.getChildren().remove(loadingLabel);
+            if (error != null) {
+                resultLabel.setText("Error loading accounts: " + AsyncTasks.unwrap(error).getMessage());
             } else {
-                for (AccountModel account : accounts) {
-                    HBox accountRow = new HBox(10);
-                    Button accountButton = new Button(account.getIban());
-                    accountButton.setStyle("-fx-background-color: #ffcc80; -fx-text-fill: #333; -fx-font-weight: bold; -fx-border-color: #ffab40; -fx-border-radius: 5; -fx-padding: 10 20;");
-                    accountButton.setOnAction(e -> {
-                        try {
-                            showTransactionDetails(account, user);
-                        } catch (IOException ex) {
-                            throw new RuntimeException(ex);
-                        }
-                    });
-
-                    Button deleteButton = new Button("Delete");
-                    deleteButton.setStyle("-fx-background-color: #e57373; -fx-text-fill: white; -fx-font-weight: bold; -fx-padding: 5 10;");
-                    deleteButton.setOnAction(e -> confirmAndDeleteAccount(accounts, account, user));
-
-                    accountRow.getChildren().addAll(accountButton, deleteButton);
-                    accountList.getChildren().add(accountRow);
-                }
+                showAccounts(accounts, user);
+            }
+        }));
+    }
+
+    /**
+     * Afișează conturile încărcate, fiecare cu butonul lui de tranzacții și de ștergere.
+     *
+     * @param accounts conturile utilizatorului
+     * @param user utilizatorul pentru care se afișează conturile
+     */
+    private void showAccounts(List<AccountModel> accounts, UserModel user) {
+        if (accounts.isEmpty()) {
+            Label noAccountsLabel = new Label("No accounts found for this user!");
+            noAccountsLabel.setStyle("-fx-text-fill: #666; -fx-font-size: 14px; -fx-font-style: italic;");
+            accountList.getChildren().add(noAccountsLabel);
+        } else {
+            for (AccountModel account : accounts) {
+                HBox accountRow = new HBox(10);
+                Button accountButton = new Button(account.getIban());
+                accountButton.setStyle("-fx-background-color: #ffcc80; -fx-text-fill: #333; -fx-font-weight: bold; -fx-border-color: #ffab40; -fx-border-radius: 5; -fx-padding: 10 20;");
+                accountButton.setOnAction(e -> {
+                    try {
+                        showTransactionDetails(account, user);
+                    } catch (IOException ex) {
+                        throw new RuntimeException(ex);
+                    }
+                });
+
+                Button deleteButton = new Button("Delete");
+                deleteButton.setStyle("-fx-background-color: #e57373; -fx-text-fill: white; -fx-font-weight: bold; -fx-padding: 5 10;");
+                deleteButton.setOnAction(e -> confirmAndDeleteAccount(accounts, account, user));
+
+                accountRow.getChildren().addAll(accountButton, deleteButton);
+                accountList.getChildren().add(accountRow);
             }
-        } catch (IOException e) {
-            resultLabel.setText("Error loading accounts: " + e.getMessage());
         }
     }
 
@@ -122,15 +143,17 @@ public class AccountDetails {
 
         confirmationAlert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                try {
-                    System.out.println("account details");
-                    System.out.println(account);
-                    accountService.deleteAccountById(account);
-                    resultLabel.setText("Account deleted successfully.");
-                    loadAccounts(user);
-                } catch (IOException e) {
-                    resultLabel.setText("Error deleting account: " + e.getMessage());
-                }
+                System.out.println("account details");
+                System.out.println(account);
+                resultLabel.setText("Deleting account...");
+                accountService.deleteAccountByIdAsync(account).whenComplete((ignored, error) -> Platform.runLater(() -> {
+                    if (error != null) {
+                        resultLabel.setText("Error deleting account: " + AsyncTasks.unwrap(error).getMessage());
+                    } else {
+                        resultLabel.setText("Account deleted successfully.");
+                        loadAccounts(user);
+                    }
+                }));
             }
         });
     }
@@ -152,7 +175,7 @@ public class AccountDetails {
      * @throws IOException dacă apare o eroare la încărcarea tranzacțiilor
      */
     private void showTransactionDetails(AccountModel account, UserModel user) throws IOException {
-        TransactionDetails transactionDetails = new TransactionDetails(primaryStage, account, user);
+        TransactionDetails transactionDetails = new TransactionDetails(primaryStage, context, account, user);
         primaryStage.getScene().setRoot(transactionDetails.getLayout());
     }
 }
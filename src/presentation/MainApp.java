@@ -1,62 +1,76 @@
 package presentation;
 
-import di.service.AccountService;
-import di.service.TransactionService;
-import di.service.UserService;
-import domain.models.AccountModel;
-import domain.models.TransactionModel;
-import domain.models.UserModel;
+import di.ApplicationContext;
+import di.service.AsyncTasks;
+import di.service.CheckpointService;
+import di.service.StartupLoader;
 import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.geometry.Pos;
 import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
-
 /**
  * Clasa principală a aplicației.
  * Conține logica pentru inițializarea și pornirea aplicației, precum și pentru încărcarea datelor.
  */
 public class MainApp extends Application {
-    private UserService userService = new UserService();
-    private AccountService accountService = new AccountService();
-    private TransactionService transactionService = new TransactionService();
-
-    private Set<UserModel> setOfUsers = new HashSet<>();
-    private List<AccountModel> listOfAccounts = new ArrayList<>();
-    private List<TransactionModel> listOfTransactions = new ArrayList<>();
+    private final ApplicationContext context = ApplicationContext.getInstance();
 
     /**
      * Metoda de start a aplicației, care încarcă datele și prezintă meniul principal.
+     * Datele sunt încărcate o singură dată prin {@link ApplicationContext} (concurent, cu {@link StartupLoader}),
+     * din motorul de stocare configurat prin {@code ebanking.storage}; ecranele folosesc apoi aceleași servicii.
+     * Încărcarea rulează în fundal prin {@link AsyncTasks}, iar până la finalul ei fereastra afișează un mesaj
+     * de încărcare, astfel încât firul JavaFX nu este blocat.
      *
      * @param primaryStage fereastra principală a aplicației
      */
     @Override
     public void start(Stage primaryStage) {
-        try {
-            setOfUsers = userService.getAllUsers().stream().collect(Collectors.toSet());
-            listOfAccounts = accountService.getAllAccounts();
-            System.out.println(listOfAccounts);
-            listOfTransactions = transactionService.getAllTransactions();
-        } catch (IOException e) {
-            System.out.println("Error loading data: " + e.getMessage());
-        }
-
-        MainMenu mainMenu = new MainMenu(primaryStage, setOfUsers);
-        Scene scene = new Scene(mainMenu.getLayout(), 800, 600);
+        Label loadingLabel = new Label("Loading data...");
+        loadingLabel.setStyle("-fx-font-size: 18px; -fx-text-fill: #333333;");
+        VBox loadingLayout = new VBox(15, new ProgressIndicator(), loadingLabel);
+        loadingLayout.setAlignment(Pos.CENTER);
+        Scene scene = new Scene(loadingLayout, 800, 600);
         primaryStage.setTitle("E-Banking App");
         primaryStage.setScene(scene);
         primaryStage.show();
 
+        AsyncTasks.supply(context::getCheckpointService).whenComplete((checkpointService, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                loadingLabel.setText("Error loading data: " + AsyncTasks.unwrap(error).getMessage());
+                return;
+            }
+            if (checkpointService != null) {
+                checkpointService.start();
+            }
+            MainMenu mainMenu = new MainMenu(primaryStage, context);
+            scene.setRoot(mainMenu.getLayout());
+            addShutdownHook(checkpointService);
+        }));
+    }
 
+    /**
+     * Înregistrează salvarea datelor la oprirea aplicației, după ce serviciile au fost încărcate.
+     *
+     * @param checkpointService serviciul de instantanee pornit sau null dacă încărcarea a eșuat și nu se scriu instantanee
+     */
+    private void addShutdownHook(CheckpointService checkpointService) {
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             try {
-                accountService.saveFinalListOfAccounts();
-                transactionService.saveTransactions();
+                if (checkpointService != null) {
+                    checkpointService.stop();
+                }
+                context.closeTransactionPipeline();
+                context.getAccountService().saveFinalListOfAccounts();
+                context.getTransactionService().saveTransactions();
+                if (checkpointService != null) {
+                    checkpointService.checkpoint();
+                }
             } catch (Exception e) {
                 System.out.println("Error during shutdown: " + e.getMessage());
             }
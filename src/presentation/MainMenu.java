@@ -1,11 +1,13 @@
 package presentation;
 
 import data.models.User;
-import di.service.AccountService;
+import di.ApplicationContext;
+import di.service.AsyncTasks;
 import di.service.UserService;
 import domain.mappers.UserMapper;
 import domain.models.UserModel;
 import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
@@ -13,14 +15,15 @@ import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 
-import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Set;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 
 /**
  * Clasa care reprezintă meniul principal al aplicației E-Banking.
- * Permite utilizatorilor să se autentifice, să creeze un cont nou sau să afle informații despre aplicație.
+ * Permite utilizatorilor să se autentifice, să creeze un cont nou, să importe tranzacții dintr-un fișier CSV
+ * sau să afle informații despre aplicație.
+ * Căutarea și salvarea utilizatorilor rulează în fundal, iar rezultatul este afișat pe firul JavaFX
+ * prin {@link Platform#runLater(Runnable)}.
  */
 public class MainMenu {
     private Stage primaryStage;
@@ -28,26 +31,30 @@ public class MainMenu {
     private VBox menuLayout;
     private VBox createAccountLayout;
     private VBox aboutUsLayout;
+    private VBox importLayout;
 
     private TextField firstNameField;
     private TextField lastNameField;
     private Label resultLabel;
 
+    private ApplicationContext context;
     private UserService userService;
 
     /**
      * Constructor pentru inițializarea meniului principal.
      *
      * @param primaryStage Fereastra principală a aplicației.
-     * @param users        Setul de utilizatori pentru gestionarea autentificării.
+     * @param context      Containerul cu serviciile partajate ale aplicației.
      */
-    public MainMenu(Stage primaryStage, Set<UserModel> users) {
+    public MainMenu(Stage primaryStage, ApplicationContext context) {
         this.primaryStage = primaryStage;
-        this.userService = new UserService();
+        this.context = context;
+        this.userService = context.getUserService();
 
-        setupMainLayout(users);
-        setupCreateAccountLayout(users);
+        setupMainLayout();
+        setupCreateAccountLayout();
         setupAboutUsLayout();
+        setupImportLayout();
 
         showMainMenu();
     }
@@ -63,10 +70,8 @@ public class MainMenu {
 
     /**
      * Configurează și afișează layout-ul principal al aplicației.
-     *
-     * @param users Setul de utilizatori pentru validarea autentificării.
      */
-    private void setupMainLayout(Set<UserModel> users) {
+    private void setupMainLayout() {
         mainLayout = new VBox(15);
         mainLayout.setPadding(new Insets(20));
         mainLayout.setAlignment(Pos.CENTER);
@@ -76,16 +81,18 @@ public class MainMenu {
         welcomeLabel.setStyle("-fx-font-size: 30px; -fx-font-weight: bold; -fx-text-fill: #333333;");
 
         Button enterAccountButton = createButton("Enter Account");
-        AccountService accountService = new AccountService();
-        enterAccountButton.setOnAction(e -> showEnterAccount(users));
+        enterAccountButton.setOnAction(e -> showEnterAccount());
 
         Button createAccountButton = createButton("Create Account");
         createAccountButton.setOnAction(e -> showCreateAccount());
 
+        Button importButton = createButton("Import Transactions");
+        importButton.setOnAction(e -> showImport());
+
         Button aboutUsButton = createButton("About Us");
         aboutUsButton.setOnAction(e -> showAboutUs());
 
-        menuLayout = new VBox(15, welcomeLabel, enterAccountButton, createAccountButton, aboutUsButton);
+        menuLayout = new VBox(15, welcomeLabel, enterAccountButton, createAccountButton, importButton, aboutUsButton);
         menuLayout.setAlignment(Pos.CENTER);
 
         mainLayout.getChildren().add(menuLayout);
@@ -109,10 +116,8 @@ public class MainMenu {
     /**
      * Afișează formularul de autentificare în cont.
      * Permite utilizatorilor să își introducă numele și prenumele pentru a accesa contul.
-     *
-     * @param users Setul de utilizatori pentru validarea autentificării.
      */
-    private void showEnterAccount(Set<UserModel> users) {
+    private void showEnterAccount() {
         Label instructionsLabel = new Label("Please enter your details:");
         instructionsLabel.setStyle("-fx-font-size: 18px; -fx-text-fill: #333333;");
 
@@ -123,7 +128,7 @@ public class MainMenu {
         lastNameField.setPromptText("Last Name");
 
         Button submitButton = createButton("Submit");
-        submitButton.setOnAction(e -> handleUserSubmission(users));
+        submitButton.setOnAction(e -> handleUserSubmission());
 
         resultLabel = new Label();
         resultLabel.setStyle("-fx-text-fill: #e74c3c; -fx-font-size: 14px;");
@@ -139,10 +144,8 @@ public class MainMenu {
 
     /**
      * Configurează layout-ul pentru crearea unui cont nou.
-     *
-     * @param users Setul de utilizatori pentru gestionarea conturilor.
      */
-    private void setupCreateAccountLayout(Set<UserModel> users) {
+    private void setupCreateAccountLayout() {
         Label createLabel = new Label("Create a New Account");
         createLabel.setStyle("-fx-font-size: 20px; -fx-font-weight: bold; -fx-text-fill: #333333;");
 
@@ -156,13 +159,7 @@ public class MainMenu {
         lastNameInput.setPromptText("Last Name");
 
         Button createButton = createButton("Create Account");
-        createButton.setOnAction(e -> {
-            try {
-                createAccount(users, idInput.getText(), firstNameInput.getText(), lastNameInput.getText());
-            } catch (IOException ex) {
-                throw new RuntimeException(ex);
-            }
-        });
+        createButton.setOnAction(e -> createAccount(idInput.getText(), firstNameInput.getText(), lastNameInput.getText()));
 
         resultLabel = new Label();
         resultLabel.setStyle("-fx-text-fill: #e74c3c; -fx-font-size: 14px;");
@@ -192,6 +189,36 @@ public class MainMenu {
         aboutUsLayout.setAlignment(Pos.CENTER);
     }
 
+    /**
+     * Configurează layout-ul pentru importul tranzacțiilor dintr-un fișier CSV.
+     */
+    private void setupImportLayout() {
+        Label importLabel = new Label("Import Transactions");
+        importLabel.setStyle("-fx-font-size: 20px; -fx-font-weight: bold; -fx-text-fill: #333333;");
+
+        TextField pathInput = new TextField();
+        pathInput.setPromptText("CSV file path (IBAN,amount,date)");
+
+        Label importResultLabel = new Label();
+        importResultLabel.setStyle("-fx-text-fill: #e74c3c; -fx-font-size: 14px;");
+
+        Button importButton = createButton("Import");
+        importButton.setOnAction(e -> importTransactions(pathInput.getText(), importResultLabel));
+
+        Button backButton = createButton("Back");
+        backButton.setOnAction(e -> showMainMenu());
+
+        importLayout = new VBox(15, importLabel, pathInput, importButton, importResultLabel, backButton);
+        importLayout.setAlignment(Pos.CENTER);
+    }
+
+    /**
+     * Afișează secțiunea de import al tranzacțiilor.
+     */
+    private void showImport() {
+        mainLayout.getChildren().setAll(importLayout);
+    }
+
     /**
      * Afișează secțiunea de creare a contului nou.
      */
@@ -215,45 +242,86 @@ public class MainMenu {
 
     /**
      * Procesează autentificarea utilizatorului pe baza numelui și prenumelui.
+     * Căutarea folosește indexul după nume din {@link UserService} și rulează în fundal.
      * Dacă utilizatorul este găsit, se vor afișa detaliile contului.
-     *
-     * @param users Setul de utilizatori pentru validarea autentificării.
      */
-    private void handleUserSubmission(Set<UserModel> users) {
+    private void handleUserSubmission() {
         String firstName = firstNameField.getText();
         String lastName = lastNameField.getText();
+        Label label = resultLabel;
+        label.setText("Searching...");
 
-        Map<String, UserModel> map = convertSetToMap(users);
-        UserModel userFound = map.values().stream()
-                .filter(user -> user.getFirstName().equals(firstName) && user.getLastName().equals(lastName))
-                .findFirst()
-                .orElse(null);
-
-        if (userFound != null) {
-            showAccountDetails(userFound);
-        } else {
-            resultLabel.setText("User not found! You entered: " + firstName + " " + lastName);
-            fadeOutLabel(resultLabel);
-        }
+        userService.findByNameAsync(firstName, lastName).whenComplete((userFound, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                System.out.println("Error loading users: " + AsyncTasks.unwrap(error).getMessage());
+            }
+            if (userFound != null) {
+                label.setText("");
+                showAccountDetails(userFound);
+            } else {
+                label.setText("User not found! You entered: " + firstName + " " + lastName);
+                fadeOutLabel(label);
+            }
+        }));
     }
 
     /**
-     * Creează un cont pentru un utilizator nou și adaugă-l în setul de utilizatori.
+     * Creează un cont pentru un utilizator nou și adaugă-l în serviciul de utilizatori.
+     * Salvarea rulează în fundal; erorile de salvare sunt afișate în eticheta de rezultat.
      *
-     * @param users     Setul de utilizatori pentru gestionarea conturilor.
      * @param id        ID-ul utilizatorului nou.
      * @param firstName Prenumele utilizatorului nou.
      * @param lastName  Numele utilizatorului nou.
-     * @throws IOException Dacă apar erori la salvarea contului.
      */
-    private void createAccount(Set<UserModel> users, String id, String firstName, String lastName) throws IOException {
+    private void createAccount(String id, String firstName, String lastName) {
         if (id == null || id.isEmpty()) {
             throw new RuntimeException("ID invalid!");
         }
         UserModel newUser = new UserModel(id, firstName, lastName);
-        userService.addUser(users, UserMapper.toData(newUser));
-        resultLabel.setText("Account created successfully for " + firstName + " " + lastName);
-        fadeOutLabel(resultLabel);
+        Label label = resultLabel;
+        label.setText("Creating account...");
+        userService.addUserAsync(UserMapper.toData(newUser)).whenComplete((ignored, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                label.setText("Error creating account: " + AsyncTasks.unwrap(error).getMessage());
+            } else {
+                label.setText("Account created successfully for " + firstName + " " + lastName);
+            }
+            fadeOutLabel(label);
+        }));
+    }
+
+    /**
+     * Importă tranzacțiile din fișierul CSV dat prin fluxul de preluare al aplicației.
+     * Importul rulează în fundal; numărul de tranzacții respinse este afișat alături de cel al liniilor citite.
+     *
+     * @param path  Calea fișierului CSV.
+     * @param label Eticheta în care este afișat rezultatul.
+     */
+    private void importTransactions(String path, Label label) {
+        if (path == null || path.isBlank()) {
+            label.setText("Please enter a file path.");
+            fadeOutLabel(label);
+            return;
+        }
+        Path file;
+        try {
+            file = Path.of(path.trim());
+        } catch (InvalidPathException e) {
+            label.setText("Invalid file path: " + e.getMessage());
+            fadeOutLabel(label);
+            return;
+        }
+        long rejectedBefore = context.getTransactionPipeline().getRejected();
+        label.setText("Importing...");
+        context.importTransactionsAsync(file).whenComplete((count, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                label.setText("Error importing transactions: " + AsyncTasks.unwrap(error).getMessage());
+            } else {
+                long rejected = context.getTransactionPipeline().getRejected() - rejectedBefore;
+                label.setText("Imported " + (count - rejected) + " of " + count + " transactions.");
+            }
+            fadeOutLabel(label);
+        }));
     }
 
     /**
@@ -273,21 +341,7 @@ public class MainMenu {
      * @param user Utilizatorul pentru care vor fi afișate detaliile contului.
      */
     private void showAccountDetails(UserModel user) {
-        AccountDetails accountDetails = new AccountDetails(primaryStage, user);
+        AccountDetails accountDetails = new AccountDetails(primaryStage, context, user);
         primaryStage.getScene().setRoot(accountDetails.getLayout());
     }
-
-    /**
-     * Convertește un set de utilizatori într-un map pentru a facilita căutarea.
-     *
-     * @param users Setul de utilizatori care trebuie convertit.
-     * @return Map-ul rezultat care mapează ID-urile utilizatorilor la obiectele UserModel.
-     */
-    private Map<String, UserModel> convertSetToMap(Set<UserModel> users) {
-        Map<String, UserModel> map = new HashMap<>();
-        for (UserModel user : users) {
-            map.put(user.getId(), user);
-        }
-        return map;
-    }
 }
\ No newline at end of file
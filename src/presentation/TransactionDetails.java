@@ -1,9 +1,14 @@
 package presentation;
 
+import data.models.Money;
+import di.ApplicationContext;
+import di.service.AccountService;
+import di.service.AsyncTasks;
 import di.service.TransactionService;
 import domain.models.AccountModel;
 import domain.models.TransactionModel;
 import domain.models.UserModel;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
@@ -30,28 +35,42 @@ import java.util.List;
  * și permite adăugarea de tranzacții noi.
  * Aceasta interfață permite utilizatorilor să vizualizeze detalii despre tranzacțiile unui cont
  * și să adauge tranzacții noi folosind un formular simplu.
+ * Istoricul este afișat pe pagini, de la cele mai recente tranzacții spre cele mai vechi.
+ * Paginile sunt citite și tranzacțiile sunt adăugate în fundal; până la terminare se afișează un mesaj
+ * de încărcare, iar rezultatul este afișat pe firul JavaFX prin {@link Platform#runLater(Runnable)}.
  */
 public class TransactionDetails {
+    private static final int PAGE_SIZE = 20;
+
     private Stage primaryStage;
     private VBox layout;
     private TransactionService transactionService;
+    private AccountService accountService;
+    private Label balanceLabel;
 
     private TextField amountField;
     private TextField dateField;
     private VBox transactionBox;
+    private Button saveButton;
+    private Button loadMoreButton;
+    private long nextCursor = TransactionService.FIRST_PAGE;
+    private int loadGeneration;
 
     /**
      * Constructorul clasei TransactionDetails.
      * Inițializează interfața pentru istoricul tranzacțiilor unui cont și un formular pentru adăugarea de tranzacții.
      *
      * @param primaryStage Fereastra principală a aplicației.
+     * @param context      Containerul cu serviciile partajate ale aplicației.
      * @param account      Contul pentru care se vor afișa tranzacțiile.
      * @param user         Utilizatorul conectat la aplicație.
      * @throws IOException Dacă există erori la accesarea datelor tranzacțiilor.
      */
-    public TransactionDetails(Stage primaryStage, AccountModel account, UserModel user) throws IOException {
+    public TransactionDetails(Stage primaryStage, ApplicationContext context, AccountModel account, UserModel user)
+            throws IOException {
         this.primaryStage = primaryStage;
-        this.transactionService = new TransactionService();
+        this.transactionService = context.getTransactionService();
+        this.accountService = context.getAccountService();
         layout = new VBox(15);
         layout.setPadding(new Insets(20));
         layout.setStyle("-fx-background-color: linear-gradient(to bottom right, #f0f0f0, #dcdcdc);");
@@ -67,19 +86,18 @@ public class TransactionDetails {
         accountLabel.setTextFill(Color.web("#333"));
         layout.getChildren().add(accountLabel);
 
+        balanceLabel = new Label();
+        balanceLabel.setFont(Font.font("Arial", FontWeight.NORMAL, 16));
+        balanceLabel.setTextFill(Color.web("#333"));
+        layout.getChildren().add(balanceLabel);
+
         Separator separator = new Separator();
         layout.getChildren().add(separator);
 
         layout.getChildren().add(createNewTransactionForm(account));
 
-        Button saveButton = createButton("Add Transaction");
-        saveButton.setOnAction(event -> {
-            try {
-                addNewTransaction(account);
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        });
+        saveButton = createButton("Add Transaction");
+        saveButton.setOnAction(event -> addNewTransaction(account));
         layout.getChildren().add(saveButton);
 
         Separator separator2 = new Separator();
@@ -91,12 +109,15 @@ public class TransactionDetails {
         scrollPane.setFitToWidth(true);
         scrollPane.setStyle("-fx-background-color: transparent;");
 
+        loadMoreButton = createButton("Load more");
+        loadMoreButton.setOnAction(event -> loadNextPage(account));
+
         loadTransactions(account);
-        layout.getChildren().add(scrollPane);
+        layout.getChildren().addAll(scrollPane, loadMoreButton);
 
         Button backButton = createButton("Back to Accounts");
         backButton.setOnAction(event -> {
-            AccountDetails accountsScreen = new AccountDetails(primaryStage, user);
+            AccountDetails accountsScreen = new AccountDetails(primaryStage, context, user);
             Scene scene = new Scene(accountsScreen.getLayout(), 800, 600);
             primaryStage.setScene(scene);
         });
@@ -131,37 +152,91 @@ public class TransactionDetails {
     }
 
     /**
-     * Încarcă tranzacțiile pentru contul specificat și le afișează pe ecran.
-     * Dacă nu există tranzacții, se va afișa un mesaj corespunzător.
+     * Reîncarcă prima pagină de tranzacții pentru contul specificat și o afișează pe ecran.
+     * Paginile cerute anterior și încă neterminate sunt ignorate.
      *
      * @param account Contul pentru care se încarcă tranzacțiile.
-     * @throws IOException Dacă există erori la accesarea tranzacțiilor.
      */
-    private void loadTransactions(AccountModel account) throws IOException {
+    private void loadTransactions(AccountModel account) {
+        Money balance = accountService.getBalance(account.getIban());
+        balanceLabel.setText("Balance: " + (balance == null ? "-" : balance.toString()));
+        loadGeneration++;
         transactionBox.getChildren().clear();
+        nextCursor = TransactionService.FIRST_PAGE;
+        loadNextPage(account);
+    }
 
-        List<TransactionModel> transactions = transactionService.getTransactionsByAccountIban(account.getIban());
-        if (transactions.isEmpty()) {
-            Label noTransactionsLabel = new Label("No transactions found.");
-            noTransactionsLabel.setFont(Font.font("Arial", FontWeight.NORMAL, 14));
-            noTransactionsLabel.setTextFill(Color.GRAY);
-            transactionBox.getChildren().add(noTransactionsLabel);
-        } else {
-            for (TransactionModel transaction : transactions) {
-                transactionBox.getChildren().add(createTransactionItem(transaction));
-            }
+    /**
+     * Citește în fundal următoarea pagină de tranzacții mai vechi și o adaugă sub tranzacțiile afișate.
+     * Cât timp pagina se încarcă, se afișează un mesaj de încărcare și butonul "Load more" este dezactivat;
+     * butonul rămâne vizibil cât timp mai există tranzacții de încărcat.
+     * Dacă nu există tranzacții, se va afișa un mesaj corespunzător.
+     *
+     * @param account Contul pentru care se încarcă tranzacțiile.
+     */
+    private void loadNextPage(AccountModel account) {
+        int generation = loadGeneration;
+        Label loadingLabel = createInfoLabel("Loading transactions...", Color.GRAY);
+        transactionBox.getChildren().add(loadingLabel);
+        loadMoreButton.setDisable(true);
+
+        transactionService.getTransactionsBeforeAsync(account.getIban(), nextCursor, PAGE_SIZE)
+                .whenComplete((page, error) -> Platform.runLater(() -> {
+                    if (generation != loadGeneration) {
+                        return;
+                    }
+                    transactionBox.getChildren().remove(loadingLabel);
+                    loadMoreButton.setDisable(false);
+                    if (error != null) {
+                        transactionBox.getChildren().add(createInfoLabel(
+                                "Error loading transactions: " + AsyncTasks.unwrap(error).getMessage(), Color.RED));
+                        return;
+                    }
+                    showPage(page);
+                }));
+    }
+
+    /**
+     * Afișează o pagină de tranzacții, de la cea mai recentă la cea mai veche.
+     *
+     * @param page pagina încărcată
+     */
+    private void showPage(TransactionService.Page page) {
+        List<TransactionModel> transactions = page.getTransactions();
+        for (int i = transactions.size() - 1; i >= 0; i--) {
+            transactionBox.getChildren().add(createTransactionItem(transactions.get(i)));
         }
+        if (transactionBox.getChildren().isEmpty()) {
+            transactionBox.getChildren().add(createInfoLabel("No transactions found.", Color.GRAY));
+        }
+        nextCursor = page.getNextCursor();
+        loadMoreButton.setVisible(page.hasMore());
+        loadMoreButton.setManaged(page.hasMore());
+    }
+
+    /**
+     * Creează o etichetă de informare pentru lista de tranzacții.
+     *
+     * @param text Textul etichetei.
+     * @param color Culoarea textului.
+     * @return Eticheta creată.
+     */
+    private Label createInfoLabel(String text, Color color) {
+        Label label = new Label(text);
+        label.setFont(Font.font("Arial", FontWeight.NORMAL, 14));
+        label.setTextFill(color);
+        return label;
     }
 
     /**
      * Adaugă o nouă tranzacție la contul specificat.
-     * Tranzacția este salvată și se va actualiza lista de tranzacții afișată.
+     * Tranzacția este salvată în fundal, iar după salvare se va actualiza lista de tranzacții afișată.
+     * Butonul de adăugare este dezactivat până la terminarea salvării.
      *
      * @param account Contul pentru care se adaugă tranzacția.
-     * @throws IOException Dacă apare o eroare la adăugarea tranzacției.
      */
-    private void addNewTransaction(AccountModel account) throws IOException {
-        double amount = Double.parseDouble(amountField.getText());
+    private void addNewTransaction(AccountModel account) {
+        Money amount = Money.parse(amountField.getText());
         LocalDate localDate = dateField.getText().isEmpty() ? LocalDate.now() :
                 LocalDate.parse(dateField.getText(), DateTimeFormatter.ofPattern("yyyy-MM-dd"));
         Date date = Date.from(localDate.atStartOfDay(ZoneId.systemDefault()).toInstant());
@@ -169,11 +244,18 @@ public class TransactionDetails {
                 account.getIban(), amount, date
         );
 
-        transactionService.addTransaction(newTransaction);
-        loadTransactions(account);
+        saveButton.setDisable(true);
+        transactionService.addTransactionAsync(newTransaction).whenComplete((ignored, error) -> Platform.runLater(() -> {
+            saveButton.setDisable(false);
+            if (error != null) {
+                System.out.println("Error adding transaction: " + AsyncTasks.unwrap(error).getMessage());
+                return;
+            }
+            loadTransactions(account);
 
-        amountField.clear();
-        dateField.clear();
+            amountField.clear();
+            dateField.clear();
+        }));
     }
 
     /**
@@ -189,13 +271,14 @@ public class TransactionDetails {
         transactionItem.setStyle("-fx-background-color: #ffffff; -fx-background-radius: 5; -fx-border-color: #dcdcdc; -fx-border-radius: 5;");
         transactionItem.setAlignment(Pos.CENTER_LEFT);
 
-        Label iconLabel = new Label(transaction.getAmount() < 0 ? "⬇️" : "⬆️");
+        boolean outgoing = transaction.getAmountMinor() < 0;
+        Label iconLabel = new Label(outgoing ? "⬇️" : "⬆️");
         iconLabel.setFont(Font.font("Arial", FontWeight.BOLD, 18));
-        iconLabel.setTextFill(transaction.getAmount() < 0 ? Color.RED : Color.GREEN);
+        iconLabel.setTextFill(outgoing ? Color.RED : Color.GREEN);
 
-        Label amountLabel = new Label(String.format("Amount: %.2f", transaction.getAmount()));
+        Label amountLabel = new Label("Amount: " + Money.format(transaction.getAmountMinor()));
         amountLabel.setFont(Font.font("Arial", FontWeight.BOLD, 16));
-        amountLabel.setTextFill(transaction.getAmount() < 0 ? Color.RED : Color.GREEN);
+        amountLabel.setTextFill(outgoing ? Color.RED : Color.GREEN);
 
         Label dateLabel = new Label("Date: " + transaction.getDate().toString());
         dateLabel.setFont(Font.font("Arial", FontWeight.NORMAL, 14));
@@ -204,7 +287,14 @@ public class TransactionDetails {
         HBox spacer = new HBox();
         HBox.setHgrow(spacer, Priority.ALWAYS);
 
-        transactionItem.getChildren().addAll(iconLabel, amountLabel, spacer, dateLabel);
+        transactionItem.getChildren().addAll(iconLabel, amountLabel, spacer);
+        if (transaction.getBalanceAfter() != null) {
+            Label balanceAfterLabel = new Label("Balance: " + transaction.getBalanceAfter());
+            balanceAfterLabel.setFont(Font.font("Arial", FontWeight.NORMAL, 14));
+            balanceAfterLabel.setTextFill(Color.web("#333"));
+            transactionItem.getChildren().add(balanceAfterLabel);
+        }
+        transactionItem.getChildren().add(dateLabel);
         return transactionItem;
     }
 